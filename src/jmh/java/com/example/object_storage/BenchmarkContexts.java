@@ -0,0 +1,59 @@
+package com.example.object_storage;
+
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트
+ * 보안/웹 설정이 서블릿 컨텍스트를 요구하므로 임의 포트로 띄우고, 실행마다 별도의 메모리 DB와 임시 업로드 디렉토리를 쓴다
+ * 벤치마크는 HTTP를 거치지 않고 빈을 직접 호출한다
+ */
+public final class BenchmarkContexts {
+    
+    private BenchmarkContexts() {
+    }
+    
+    public static ConfigurableApplicationContext start(Path uploadDir) {
+        return new SpringApplicationBuilder(ObjectStorageApplication.class)
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "spring.jpa.properties.hibernate.format_sql=false",
+                    "spring.h2.console.enabled=false",
+                    "file.upload.dir=" + uploadDir.toAbsolutePath(),
+                    "logging.level.root=WARN",
+                    "logging.level.org.springframework.jdbc.core=WARN"
+                )
+                .run();
+    }
+    
+    public static Path createUploadDir() throws IOException {
+        return Files.createTempDirectory("object-storage-bench-");
+    }
+    
+    public static void stop(ConfigurableApplicationContext context, Path uploadDir) throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (uploadDir != null) {
+            FileSystemUtils.deleteRecursively(uploadDir);
+        }
+    }
+    
+    public static User createUser(ConfigurableApplicationContext context, String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}benchmark");
+        user.setEmail(username + "@bench.local");
+        return context.getBean(UserRepository.class).save(user);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.BenchmarkContexts;
+import com.example.object_storage.dto.FileListPage;
+import com.example.object_storage.dto.FileListQuery;
+import com.example.object_storage.dto.FileMetadataDto;
+import com.example.object_storage.entity.FileMetadata;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.FileMetadataRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 사용자에게 많은 파일이 있을 때의 목록 조회(keyset 페이지네이션)와 엔티티 → DTO 변환
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileListingBenchmark {
+    
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 100;
+    private static final String[] CONTENT_TYPES = {"image/png", "image/jpeg", "application/pdf", "text/plain", "video/mp4"};
+    
+    @Param({"10000", "100000"})
+    private int files;
+    
+    private Path uploadDir;
+    private ConfigurableApplicationContext context;
+    private FileStorageService fileStorageService;
+    private User owner;
+    
+    // 목록 중간 페이지의 커서 (깊은 페이지도 첫 페이지와 비용이 같아야 함)
+    private String middleCursor;
+    private FileMetadata sample;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        uploadDir = BenchmarkContexts.createUploadDir();
+        context = BenchmarkContexts.start(uploadDir);
+        fileStorageService = context.getBean(FileStorageService.class);
+        owner = BenchmarkContexts.createUser(context, "listing-bench");
+        seed(context.getBean(FileMetadataRepository.class), context.getBean(TransactionTemplate.class));
+        
+        FileListQuery query = pageQuery();
+        for (int page = 0; page < files / PAGE_SIZE / 2; page++) {
+            query.setCursor(fileStorageService.getUserFiles(owner, query).getNextCursor());
+        }
+        middleCursor = query.getCursor();
+        
+        sample = newFile(0);
+        sample.setId(1L);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkContexts.stop(context, uploadDir);
+    }
+    
+    @Benchmark
+    public FileListPage firstPage() {
+        return fileStorageService.getUserFiles(owner, pageQuery());
+    }
+    
+    @Benchmark
+    public FileListPage middlePage() {
+        FileListQuery query = pageQuery();
+        query.setCursor(middleCursor);
+        return fileStorageService.getUserFiles(owner, query);
+    }
+    
+    /**
+     * 파일명 부분 일치 검색 + 이름순 정렬
+     */
+    @Benchmark
+    public FileListPage searchByName() {
+        FileListQuery query = pageQuery();
+        query.setQ("report-1");
+        query.setSort("name");
+        query.setOrder("asc");
+        return fileStorageService.getUserFiles(owner, query);
+    }
+    
+    @Benchmark
+    public FileMetadataDto convertToDto() {
+        return fileStorageService.convertToDto(sample);
+    }
+    
+    private static FileListQuery pageQuery() {
+        FileListQuery query = new FileListQuery();
+        query.setLimit(PAGE_SIZE);
+        return query;
+    }
+    
+    private void seed(FileMetadataRepository repository, TransactionTemplate transactionTemplate) {
+        for (int start = 0; start < files; start += SEED_BATCH_SIZE) {
+            List<FileMetadata> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = start; i < Math.min(files, start + SEED_BATCH_SIZE); i++) {
+                batch.add(newFile(i));
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+        }
+    }
+    
+    private FileMetadata newFile(int index) {
+        FileMetadata file = new FileMetadata();
+        file.setOriginalFilename("report-" + index + ".dat");
+        file.setBlobHash(String.format("%064x", index));
+        file.setContentType(CONTENT_TYPES[index % CONTENT_TYPES.length]);
+        file.setFileSize(1024L + index);
+        file.setDownloadLink(UUID.randomUUID().toString());
+        file.setOwner(owner);
+        file.setPermission(FilePermission.PRIVATE);
+        return file;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.BenchmarkContexts;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.storage.BlobLocation;
+import com.example.object_storage.storage.TransferEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드(해시 계산, 디스크 기록, 메타데이터 저장)와 다운로드(링크 해석, 전송) 경로를 객체 크기별로 측정
+ * 업로드 내용은 매번 앞부분을 바꿔 중복 제거(참조 수 증가)로 끝나지 않게 하고, 측정 밖에서 바로 삭제한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+    
+    // 1KB(세그먼트 묶음), 64KB, 1MB(캐시 상한), 16MB(단독 파일)
+    @Param({"1024", "65536", "1048576", "16777216"})
+    private int size;
+    
+    private Path uploadDir;
+    private ConfigurableApplicationContext context;
+    private FileStorageService fileStorageService;
+    private TransferEngine transferEngine;
+    private User owner;
+    
+    private byte[] content;
+    private long sequence;
+    private String downloadLink;
+    private Long uploadedId;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        uploadDir = BenchmarkContexts.createUploadDir();
+        context = BenchmarkContexts.start(uploadDir);
+        fileStorageService = context.getBean(FileStorageService.class);
+        transferEngine = context.getBean(TransferEngine.class);
+        owner = BenchmarkContexts.createUser(context, "storage-bench");
+        
+        // 압축되지 않는 내용 (압축 단계는 샘플 검사 후 건너뜀)
+        content = new byte[size];
+        ThreadLocalRandom.current().nextBytes(content);
+        
+        FileUploadResponse uploaded = fileStorageService.uploadFile(multipartFile(), owner);
+        fileStorageService.updateFilePermission(uploaded.getFileId(), owner, FilePermission.PUBLIC, null);
+        downloadLink = uploaded.getDownloadLink();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkContexts.stop(context, uploadDir);
+    }
+    
+    @TearDown(Level.Invocation)
+    public void deleteUploaded() throws IOException {
+        if (uploadedId != null) {
+            fileStorageService.deleteFile(uploadedId, owner);
+            uploadedId = null;
+        }
+    }
+    
+    @Benchmark
+    public FileUploadResponse uploadFile() throws IOException {
+        FileUploadResponse response = fileStorageService.uploadFile(multipartFile(), owner);
+        uploadedId = response.getFileId();
+        return response;
+    }
+    
+    /**
+     * DownloadController와 같은 순서로 링크 해석 후 캐시 또는 파일에서 전송
+     */
+    @Benchmark
+    public ResolvedDownload downloadFile() throws IOException {
+        ResolvedDownload download = fileStorageService.downloadFile(downloadLink, null);
+        OutputStream out = OutputStream.nullOutputStream();
+        ByteBuffer cached = fileStorageService.getHotContent(download);
+        if (cached != null) {
+            transferEngine.write(cached, out);
+            return download;
+        }
+        
+        BlobLocation location = download.location();
+        try (FileChannel channel = FileChannel.open(location.path(), StandardOpenOption.READ)) {
+            if (download.contentEncoding() != null) {
+                transferEngine.decode(channel, location.offset(), location.length(), out);
+            } else {
+                transferEngine.copy(channel, location.offset(), location.length(), out);
+            }
+        }
+        return download;
+    }
+    
+    private MockMultipartFile multipartFile() {
+        long next = ++sequence;
+        for (int i = 0; i < Math.min(Long.BYTES, content.length); i++) {
+            content[i] = (byte) (next >>> (i * 8));
+        }
+        return new MockMultipartFile("file", "bench-" + size + ".bin", "application/octet-stream", content);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.object_storage.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * 측정 구간의 처리량/지연/오류율과 서버 자원 사용량
+ */
+public record LoadReport(
+    int users,
+    double seconds,
+    List<OperationResult> operations,
+    OperationResult total,
+    ServerSampler.ServerUsage server,
+    List<String> failures
+) {
+    
+    public static OperationResult result(String name, OperationStats.Interval interval, double seconds) {
+        Histogram latencies = interval.latencies();
+        long count = latencies.getTotalCount();
+        return new OperationResult(
+            name,
+            count,
+            count / seconds,
+            count > 0 ? (double) interval.errors() / count : 0,
+            interval.bytes() / seconds,
+            millis(latencies.getValueAtPercentile(50)),
+            millis(latencies.getValueAtPercentile(90)),
+            millis(latencies.getValueAtPercentile(99)),
+            millis(latencies.getValueAtPercentile(99.9)),
+            millis(latencies.getMaxValue())
+        );
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("%n%d users, %.1f s measured%n%n", users, seconds);
+        out.printf("%-11s %9s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ops/s", "errors", "MB/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationResult operation : operations) {
+            print(out, operation);
+        }
+        print(out, total);
+        
+        if (server != null) {
+            out.printf("%nserver: cpu avg %.0f%% / max %.0f%%, heap max %d MB, threads max %d (%d samples)%n",
+                    server.cpuAverage() * 100, server.cpuMax() * 100, server.heapMaxBytes() / (1024 * 1024),
+                    server.threadsMax(), server.samples());
+        } else {
+            out.printf("%nserver: /actuator/prometheus not available%n");
+        }
+        if (!failures.isEmpty()) {
+            out.printf("%n%d virtual users failed:%n", failures.size());
+            failures.forEach(failure -> out.println("  " + failure));
+        }
+    }
+    
+    private static void print(PrintStream out, OperationResult operation) {
+        out.printf("%-11s %9d %10.1f %7.2f%% %10.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.name(), operation.count(), operation.throughput(), operation.errorRate() * 100,
+                operation.bytesPerSecond() / (1024 * 1024), operation.p50(), operation.p90(), operation.p99(),
+                operation.p999(), operation.max());
+    }
+    
+    /**
+     * 작업별 결과 (지연은 ms)
+     */
+    public record OperationResult(String name, long count, double throughput, double errorRate, double bytesPerSecond,
+                                  double p50, double p90, double p99, double p999, double max) {
+    }
+}
\ No newline at end of file
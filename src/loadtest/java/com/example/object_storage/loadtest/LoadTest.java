@@ -0,0 +1,200 @@
+package com.example.object_storage.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP API 부하 테스트 (./gradlew loadTest -Pargs="--users=32 --duration=2m")
+ *
+ * 가상 사용자마다 스레드 하나로 요청 → 응답 → 대기를 반복하고(closed-loop), 예열 구간이 지난 뒤
+ * 측정 구간의 처리량, 지연 백분위(HdrHistogram), 오류율과 서버 자원 사용량을 출력/저장한다
+ * 임시 인스턴스는 별도 프로세스로 띄우므로 서버 자원 사용량에 부하 발생기 몫은 섞이지 않는다
+ * 설정은 LoadTestConfig 참고
+ */
+public final class LoadTest {
+    
+    private static final String[] OPERATIONS = {"login", "upload", "permission", "list", "download", "delete"};
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (config.compareThreading()) {
+            compareThreading(config);
+            return;
+        }
+        
+        ServerProcess server = null;
+        String baseUrl = config.target();
+        try {
+            if (baseUrl == null) {
+                server = ServerProcess.start(config.serverJava(), config.serverProperties(), besideReport(config, "server.log"));
+                baseUrl = server.baseUrl();
+            }
+            
+            LoadReport report = run(config, baseUrl);
+            report.print(System.out);
+            
+            write(config.report(), report);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+    
+    /**
+     * 같은 시나리오를 플랫폼 스레드 모드와 가상 스레드 모드의 새 서버 프로세스에 차례로 실행하고
+     * 두 결과와 처리량/p99 비교를 저장
+     * 가상 스레드 모드 서버는 Java 21 미만에서 시작을 거부하므로 --server-java가 21 이상이어야 한다
+     */
+    static void compareThreading(LoadTestConfig config) throws Exception {
+        LoadReport platform = runThreadingMode(config, "platform", false);
+        LoadReport virtual = runThreadingMode(config, "virtual", true);
+        
+        ThreadingComparison comparison = ThreadingComparison.of(platform, virtual);
+        comparison.print(System.out);
+        write(config.report(), comparison);
+    }
+    
+    private static LoadReport runThreadingMode(LoadTestConfig config, String mode, boolean virtualThreads) throws Exception {
+        Map<String, String> properties = new LinkedHashMap<>(config.serverProperties());
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        
+        System.out.printf("%n== %s threads ==%n", mode);
+        try (ServerProcess server = ServerProcess.start(config.serverJava(), properties, besideReport(config, "server-" + mode + ".log"))) {
+            LoadReport report = run(config, server.baseUrl());
+            report.print(System.out);
+            write(besideReport(config, "report-" + mode + ".json"), report);
+            return report;
+        }
+    }
+    
+    static LoadReport run(LoadTestConfig config, String baseUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        for (String operation : OPERATIONS) {
+            stats.put(operation, new OperationStats(operation));
+        }
+        
+        RunState runState = new RunState(config.users());
+        List<Thread> users = new ArrayList<>(config.users());
+        for (int i = 0; i < config.users(); i++) {
+            Thread user = new Thread(new VirtualUser(baseUrl, client, objectMapper, config, stats, runState), "load-user-" + i);
+            user.setDaemon(true);
+            user.start();
+            users.add(user);
+        }
+        runState.awaitReady();
+        
+        // 예열 구간의 기록은 버림 (JIT, 커넥션 풀, 캐시가 자리 잡는 동안)
+        TimeUnit.MILLISECONDS.sleep(config.warmup().toMillis());
+        stats.values().forEach(OperationStats::takeInterval);
+        
+        ServerSampler sampler = new ServerSampler(client, baseUrl);
+        ScheduledExecutorService sampling = Executors.newSingleThreadScheduledExecutor();
+        sampling.scheduleAtFixedRate(sampler, 0, 1, TimeUnit.SECONDS);
+        
+        long started = System.nanoTime();
+        TimeUnit.MILLISECONDS.sleep(config.duration().toMillis());
+        Map<String, OperationStats.Interval> intervals = new LinkedHashMap<>();
+        stats.forEach((name, operation) -> intervals.put(name, operation.takeInterval()));
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        
+        runState.stop();
+        sampling.shutdownNow();
+        for (Thread user : users) {
+            user.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        
+        List<LoadReport.OperationResult> results = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long bytes = 0;
+        for (Map.Entry<String, OperationStats.Interval> entry : intervals.entrySet()) {
+            OperationStats.Interval interval = entry.getValue();
+            results.add(LoadReport.result(entry.getKey(), interval, seconds));
+            all.add(interval.latencies());
+            errors += interval.errors();
+            bytes += interval.bytes();
+        }
+        LoadReport.OperationResult total = LoadReport.result("total", new OperationStats.Interval(all, errors, bytes), seconds);
+        
+        return new LoadReport(config.users(), seconds, results, total, sampler.usage(), List.copyOf(runState.failures));
+    }
+    
+    /**
+     * 임시 인스턴스 로그와 모드별 보고서는 보고서 옆에 남김
+     */
+    static Path besideReport(LoadTestConfig config, String name) {
+        return config.report().toAbsolutePath().resolveSibling(name);
+    }
+    
+    private static void write(Path path, Object report) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        System.out.println("\nReport written to " + path.toAbsolutePath());
+    }
+    
+    /**
+     * 가상 사용자들의 준비/종료 신호와 실패 기록
+     */
+    static final class RunState {
+        
+        private final CountDownLatch ready;
+        private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        private volatile boolean stopped;
+        
+        RunState(int users) {
+            this.ready = new CountDownLatch(users);
+        }
+        
+        void ready() {
+            ready.countDown();
+        }
+        
+        void awaitReady() throws InterruptedException {
+            ready.await();
+        }
+        
+        boolean stopped() {
+            return stopped;
+        }
+        
+        void stop() {
+            stopped = true;
+        }
+        
+        /**
+         * 준비 전에 실패한 사용자도 준비 신호를 보내 전체 시작이 막히지 않게 함
+         */
+        void fail(String username, Exception e, boolean beforeReady) {
+            failures.add(username + ": " + e);
+            if (beforeReady) {
+                ready.countDown();
+            }
+        }
+    }
+}
\ No newline at end of file
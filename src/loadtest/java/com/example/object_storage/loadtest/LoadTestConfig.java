@@ -0,0 +1,99 @@
+package com.example.object_storage.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 설정 (--이름=값 형식의 인자)
+ *
+ * --target=http://host:port     대상 서버, 없으면 임시 인스턴스를 별도 JVM 프로세스로 띄움
+ * --server-java=/path/bin/java  임시 인스턴스를 실행할 java (기본은 부하 발생기와 같은 java)
+ * --users=16                    동시 가상 사용자 수 (각자 요청 → 응답 → 대기를 반복하는 closed-loop)
+ * --duration=60s --warmup=10s   측정 시간과 측정 전 예열 시간
+ * --think-time=100ms            요청 사이 평균 대기 시간 (지수 분포, 0이면 대기 없음)
+ * --mix=download:60,list:20,upload:12,delete:5,login:3   작업 비율
+ * --sizes=1KB:50,64KB:30,1MB:15,8MB:5                      업로드 객체 크기 분포
+ * --seed-files=5                사용자별로 시작 전에 올려 둘 파일 수
+ * --report=build/results/loadtest/report.json
+ * --compare-threading=true      플랫폼 스레드/가상 스레드 모드 서버에 차례로 실행해 처리량과 p99를 비교
+ *                               (임시 인스턴스 전용, --server-java가 Java 21 이상이어야 함)
+ *
+ * 그 밖의 인자(예: --spring.threads.virtual.enabled=true)는 임시 인스턴스의 설정으로 전달된다
+ */
+public record LoadTestConfig(
+    String target,
+    String serverJava,
+    int users,
+    Duration duration,
+    Duration warmup,
+    Duration thinkTime,
+    WeightedChoice<String> mix,
+    WeightedChoice<Long> sizes,
+    int seedFiles,
+    Path report,
+    boolean compareThreading,
+    Map<String, String> serverProperties
+) {
+    
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> serverProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.contains(".")) {
+                serverProperties.put(name, value);
+            } else {
+                options.put(name, value);
+            }
+        }
+        
+        boolean compareThreading = Boolean.parseBoolean(options.getOrDefault("compare-threading", "false"));
+        if (compareThreading && options.containsKey("target")) {
+            throw new IllegalArgumentException("--compare-threading starts its own servers and cannot be used with --target");
+        }
+        if (compareThreading && serverProperties.containsKey("spring.threads.virtual.enabled")) {
+            throw new IllegalArgumentException("--compare-threading sets spring.threads.virtual.enabled itself");
+        }
+        
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        parseWeights(options.getOrDefault("sizes", "1KB:50,64KB:30,1MB:15,8MB:5"))
+                .forEach((size, weight) -> sizes.put(DataSize.parse(size).toBytes(), weight));
+        
+        return new LoadTestConfig(
+            options.get("target"),
+            options.getOrDefault("server-java", ServerProcess.currentJava()),
+            Integer.parseInt(options.getOrDefault("users", "16")),
+            DurationStyle.detectAndParse(options.getOrDefault("duration", "60s")),
+            DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s")),
+            DurationStyle.detectAndParse(options.getOrDefault("think-time", "100ms")),
+            new WeightedChoice<>(parseWeights(options.getOrDefault("mix", "download:60,list:20,upload:12,delete:5,login:3"))),
+            new WeightedChoice<>(sizes),
+            Integer.parseInt(options.getOrDefault("seed-files", "5")),
+            Path.of(options.getOrDefault("report", "build/results/loadtest/report.json")),
+            compareThreading,
+            serverProperties
+        );
+    }
+    
+    private static Map<String, Long> parseWeights(String spec) {
+        Map<String, Long> weights = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight but got: " + entry);
+            }
+            weights.put(parts[0], Long.parseLong(parts[1]));
+        }
+        return weights;
+    }
+}
\ No newline at end of file
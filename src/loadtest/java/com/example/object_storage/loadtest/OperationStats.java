@@ -0,0 +1,50 @@
+package com.example.object_storage.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 작업 하나의 지연 분포(HdrHistogram)와 성공/실패 수, 전송 바이트
+ * 여러 가상 사용자가 동시에 기록하고, 측정 구간이 끝날 때 한 번에 꺼낸다
+ */
+public final class OperationStats {
+    
+    // 1µs ~ 1시간, 유효숫자 3자리
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+    
+    private final String name;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    
+    public OperationStats(String name) {
+        this.name = name;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public void record(long startedNanos, boolean success, long transferred) {
+        long micros = Math.max(1, (System.nanoTime() - startedNanos) / 1_000);
+        recorder.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+        bytes.add(transferred);
+    }
+    
+    /**
+     * 지금까지의 기록을 꺼내고 초기화 (예열 구간을 버릴 때와 측정 종료 시 사용)
+     */
+    public Interval takeInterval() {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new Interval(histogram, errors.sumThenReset(), bytes.sumThenReset());
+    }
+    
+    public record Interval(Histogram latencies, long errors, long bytes) {
+    }
+}
\ No newline at end of file
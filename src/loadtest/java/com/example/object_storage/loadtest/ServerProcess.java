@@ -0,0 +1,141 @@
+package com.example.object_storage.loadtest;
+
+import com.example.object_storage.ObjectStorageApplication;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 부하 테스트 대상 서버를 별도 JVM 프로세스로 띄움 (임시 포트, 메모리 DB, 임시 업로드 디렉토리)
+ * 부하 발생기와 JVM을 나누므로 /actuator/prometheus의 CPU, 힙, 스레드 수는 서버만의 값이다
+ */
+public final class ServerProcess implements AutoCloseable {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    
+    private final Process process;
+    private final Path uploadDir;
+    private final Path log;
+    private final String baseUrl;
+    
+    private ServerProcess(Process process, Path uploadDir, Path log, int port) {
+        this.process = process;
+        this.uploadDir = uploadDir;
+        this.log = log;
+        this.baseUrl = "http://localhost:" + port;
+    }
+    
+    /**
+     * 서버를 띄우고 /actuator/health가 응답할 때까지 기다림
+     *
+     * @param java 서버를 실행할 java 실행 파일 (부하 발생기와 다른 JDK로 실행할 수 있음)
+     * @param properties 서버 설정 (기본값을 덮어씀)
+     * @param log 서버 표준 출력/오류를 남길 파일
+     */
+    public static ServerProcess start(String java, Map<String, String> properties, Path log)
+            throws IOException, InterruptedException {
+        Path uploadDir = Files.createTempDirectory("object-storage-load-");
+        int port = freePort();
+        
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("server.port", String.valueOf(port));
+        settings.put("server.address", "127.0.0.1");
+        settings.put("spring.datasource.url", "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        settings.put("spring.jpa.show-sql", "false");
+        settings.put("spring.h2.console.enabled", "false");
+        settings.put("file.upload.dir", uploadDir.toAbsolutePath().toString());
+        settings.put("logging.level.root", "WARN");
+        settings.put("logging.level.org.springframework.jdbc.core", "WARN");
+        settings.putAll(properties);
+        
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ObjectStorageApplication.class.getName());
+        settings.forEach((name, value) -> command.add("--" + name + "=" + value));
+        
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        
+        ServerProcess server = new ServerProcess(process, uploadDir, log, port);
+        try {
+            server.awaitHealthy();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+        return server;
+    }
+    
+    public String baseUrl() {
+        return baseUrl;
+    }
+    
+    /**
+     * 부하 발생기를 실행 중인 JVM의 java 실행 파일
+     */
+    public static String currentJava() {
+        return ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    }
+    
+    private void awaitHealthy() throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Server exited with " + process.exitValue() + ", see " + log.toAbsolutePath());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 포트가 열리지 않음
+            }
+            TimeUnit.MILLISECONDS.sleep(250);
+        }
+        throw new IllegalStateException("Server did not become healthy within " + STARTUP_TIMEOUT + ", see " + log.toAbsolutePath());
+    }
+    
+    /**
+     * 정상 종료를 요청하고, 시간 안에 끝나지 않으면 강제 종료한 뒤 임시 디렉토리 삭제
+     */
+    @Override
+    public void close() throws InterruptedException, IOException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+        }
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
\ No newline at end of file
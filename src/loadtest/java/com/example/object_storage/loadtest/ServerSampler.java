@@ -0,0 +1,87 @@
+package com.example.object_storage.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 대상 서버의 /actuator/prometheus를 주기적으로 읽어 CPU, 힙, 스레드 수를 모음
+ * 값은 서버 JVM 기준이다 (--target 서버가 부하 발생기와 같은 호스트면 CPU는 호스트 코어를 나눠 쓴 결과)
+ */
+public final class ServerSampler implements Runnable {
+    
+    private final HttpClient client;
+    private final URI uri;
+    
+    private long samples;
+    private double cpuSum;
+    private double cpuMax;
+    private double heapMax;
+    private double threadsMax;
+    private boolean available = true;
+    
+    public ServerSampler(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.uri = URI.create(baseUrl + "/actuator/prometheus");
+    }
+    
+    @Override
+    public void run() {
+        if (!available) {
+            return;
+        }
+        try {
+            HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(2)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                available = false;
+                return;
+            }
+            sample(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 한 번 실패한 샘플은 건너뜀
+        }
+    }
+    
+    private synchronized void sample(String metrics) {
+        double cpu = 0;
+        double heap = 0;
+        double threads = 0;
+        for (String line : metrics.split("\n")) {
+            if (line.startsWith("process_cpu_usage ")) {
+                cpu = value(line);
+            } else if (line.startsWith("jvm_memory_used_bytes{") && line.contains("area=\"heap\"")) {
+                heap += value(line);
+            } else if (line.startsWith("jvm_threads_live_threads ")) {
+                threads = value(line);
+            }
+        }
+        samples++;
+        cpuSum += cpu;
+        cpuMax = Math.max(cpuMax, cpu);
+        heapMax = Math.max(heapMax, heap);
+        threadsMax = Math.max(threadsMax, threads);
+    }
+    
+    private static double value(String line) {
+        return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+    }
+    
+    public synchronized ServerUsage usage() {
+        if (samples == 0) {
+            return null;
+        }
+        return new ServerUsage(samples, cpuSum / samples, cpuMax, (long) heapMax, (long) threadsMax);
+    }
+    
+    /**
+     * 측정 구간의 서버 자원 사용량 (CPU는 0~1, 프로세스 전체 코어 기준)
+     */
+    public record ServerUsage(long samples, double cpuAverage, double cpuMax, long heapMaxBytes, long threadsMax) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.example.object_storage.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 같은 시나리오를 플랫폼 스레드 모드와 가상 스레드 모드 서버에 각각 실행한 결과 비교
+ * 변화율은 플랫폼 모드 대비 가상 스레드 모드 값 (처리량은 클수록, 지연은 작을수록 좋음)
+ */
+public record ThreadingComparison(
+    LoadReport platform,
+    LoadReport virtual,
+    List<Row> operations
+) {
+    
+    public static ThreadingComparison of(LoadReport platform, LoadReport virtual) {
+        List<Row> rows = new ArrayList<>();
+        for (LoadReport.OperationResult operation : platform.operations()) {
+            virtual.operations().stream()
+                    .filter(other -> other.name().equals(operation.name()))
+                    .findFirst()
+                    .ifPresent(other -> rows.add(Row.of(operation, other)));
+        }
+        rows.add(Row.of(platform.total(), virtual.total()));
+        return new ThreadingComparison(platform, virtual, rows);
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("%n== platform vs virtual threads ==%n%n");
+        out.printf("%-11s %11s %11s %8s %11s %11s %8s %11s %11s%n",
+                "operation", "ops/s plat", "ops/s virt", "change", "p99 plat", "p99 virt", "change", "errs plat", "errs virt");
+        for (Row row : operations) {
+            out.printf("%-11s %11.1f %11.1f %7.1f%% %11.2f %11.2f %7.1f%% %10.2f%% %10.2f%%%n",
+                    row.name(), row.platformThroughput(), row.virtualThroughput(), change(row.platformThroughput(), row.virtualThroughput()),
+                    row.platformP99(), row.virtualP99(), change(row.platformP99(), row.virtualP99()),
+                    row.platformErrorRate() * 100, row.virtualErrorRate() * 100);
+        }
+        
+        if (platform.server() != null && virtual.server() != null) {
+            out.printf("%nserver threads max: platform %d, virtual %d%n",
+                    platform.server().threadsMax(), virtual.server().threadsMax());
+            out.printf("server cpu avg:     platform %.0f%%, virtual %.0f%%%n",
+                    platform.server().cpuAverage() * 100, virtual.server().cpuAverage() * 100);
+        }
+    }
+    
+    private static double change(double before, double after) {
+        return before > 0 ? (after - before) / before * 100 : 0;
+    }
+    
+    /**
+     * 작업별 처리량(ops/s), p99 지연(ms), 오류율
+     */
+    public record Row(String name, double platformThroughput, double virtualThroughput, double platformP99, double virtualP99,
+                      double platformErrorRate, double virtualErrorRate) {
+        
+        static Row of(LoadReport.OperationResult platform, LoadReport.OperationResult virtual) {
+            return new Row(platform.name(), platform.throughput(), virtual.throughput(), platform.p99(), virtual.p99(),
+                    platform.errorRate(), virtual.errorRate());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.example.object_storage.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가상 사용자 하나 (가입 → 로그인 → 초기 파일 업로드 후 작업 비율대로 요청을 반복)
+ * 다운로드/삭제 대상은 자기가 올린 파일 중에서 고른다
+ */
+public final class VirtualUser implements Runnable {
+    
+    private static final String BOUNDARY = "----loadtest-" + UUID.randomUUID();
+    
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final LoadTestConfig config;
+    private final Map<String, OperationStats> stats;
+    private final LoadTest.RunState runState;
+    
+    private final String username = "load-" + UUID.randomUUID().toString().substring(0, 12);
+    private final String password = "load-password";
+    private final List<UploadedFile> files = new ArrayList<>();
+    private byte[] content;
+    private long sequence;
+    private String token;
+    
+    public VirtualUser(String baseUrl, HttpClient client, ObjectMapper objectMapper, LoadTestConfig config,
+                       Map<String, OperationStats> stats, LoadTest.RunState runState) {
+        this.baseUrl = baseUrl;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.stats = stats;
+        this.runState = runState;
+    }
+    
+    @Override
+    public void run() {
+        boolean ready = false;
+        try {
+            // 크기별로 매번 새로 만들지 않도록 가장 큰 크기만큼 한 번 채워 두고 앞부분만 바꿔 씀
+            long maxSize = config.sizes().values().stream().mapToLong(Long::longValue).max().orElse(0);
+            content = new byte[Math.toIntExact(maxSize)];
+            ThreadLocalRandom.current().nextBytes(content);
+            
+            register();
+            login();
+            for (int i = 0; i < config.seedFiles(); i++) {
+                upload();
+            }
+            runState.ready();
+            ready = true;
+            
+            while (!runState.stopped()) {
+                execute(config.mix().pick());
+                think();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            runState.fail(username, e, !ready);
+        }
+    }
+    
+    private void execute(String operation) throws IOException, InterruptedException {
+        switch (operation) {
+            case "login" -> login();
+            case "upload" -> upload();
+            case "list" -> list();
+            case "download" -> {
+                if (files.isEmpty()) {
+                    upload();
+                } else {
+                    download(files.get(ThreadLocalRandom.current().nextInt(files.size())));
+                }
+            }
+            case "delete" -> {
+                // 다운로드할 파일이 남도록 하나는 유지
+                if (files.size() <= 1) {
+                    upload();
+                } else {
+                    delete(files.remove(ThreadLocalRandom.current().nextInt(files.size())));
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+    
+    private void register() throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+            "username", username, "password", password, "email", username + "@loadtest.local"));
+        Response response = send(HttpRequest.newBuilder(uri("/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)), null);
+        if (response.status() != 200) {
+            throw new IllegalStateException("Registration failed: " + response.status());
+        }
+    }
+    
+    private void login() throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("username", username, "password", password));
+        Response response = send(HttpRequest.newBuilder(uri("/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)), stats.get("login"));
+        if (response.status() == 200) {
+            token = objectMapper.readTree(response.body()).path("token").asText();
+        } else if (token == null) {
+            throw new IllegalStateException("Login failed: " + response.status());
+        }
+    }
+    
+    /**
+     * 업로드 후 다운로드 링크로 받을 수 있도록 공개로 전환 (두 요청은 각각 upload, permission으로 기록)
+     */
+    private void upload() throws IOException, InterruptedException {
+        int size = Math.toIntExact(config.sizes().pick());
+        long next = ++sequence;
+        for (int i = 0; i < Math.min(Long.BYTES, size); i++) {
+            content[i] = (byte) (next >>> (i * 8));
+        }
+        
+        Response response = send(authorized("/upload")
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(size))), stats.get("upload"), size);
+        if (response.status() != 200) {
+            return;
+        }
+        JsonNode uploaded = objectMapper.readTree(response.body());
+        UploadedFile file = new UploadedFile(uploaded.path("fileId").asLong(), uploaded.path("downloadLink").asText());
+        
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("permission", "PUBLIC"));
+        Response permission = send(authorized("/files/" + file.id() + "/permission")
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body)), stats.get("permission"));
+        if (permission.status() == 200) {
+            files.add(file);
+        }
+    }
+    
+    private void list() throws IOException, InterruptedException {
+        send(authorized("/files?limit=100").GET(), stats.get("list"));
+    }
+    
+    /**
+     * 본문을 끝까지 읽어야 전송 시간까지 지연에 포함됨
+     */
+    private void download(UploadedFile file) throws IOException, InterruptedException {
+        OperationStats operation = stats.get("download");
+        long started = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(
+                HttpRequest.newBuilder(uri("/download/" + file.downloadLink())).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+            long received;
+            try (InputStream body = response.body()) {
+                received = body.transferTo(OutputStream.nullOutputStream());
+            }
+            operation.record(started, response.statusCode() == 200, received);
+        } catch (IOException e) {
+            operation.record(started, false, 0);
+        }
+    }
+    
+    private void delete(UploadedFile file) throws IOException, InterruptedException {
+        send(authorized("/files/" + file.id()).DELETE(), stats.get("delete"));
+    }
+    
+    private Response send(HttpRequest.Builder request, OperationStats operation)
+            throws IOException, InterruptedException {
+        return send(request, operation, 0);
+    }
+    
+    /**
+     * 요청을 보내고 지연/성공 여부를 기록 (기록 대상 작업의 연결 오류는 실패로 기록하고 상태 -1로 반환)
+     */
+    private Response send(HttpRequest.Builder request, OperationStats operation, long sent)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (operation != null) {
+                boolean success = response.statusCode() >= 200 && response.statusCode() < 300;
+                operation.record(started, success, sent + response.body().length);
+            }
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            if (operation == null) {
+                throw e;
+            }
+            operation.record(started, false, 0);
+            return new Response(-1, new byte[0]);
+        }
+    }
+    
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+    
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+    
+    private byte[] multipartBody(int size) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(size + 256);
+        String header = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-" + sequence + ".bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        body.writeBytes(header.getBytes(StandardCharsets.US_ASCII));
+        body.write(content, 0, size);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+    
+    /**
+     * 평균이 think-time인 지수 분포 대기 (요청이 같은 박자로 몰리지 않도록)
+     */
+    private void think() throws InterruptedException {
+        long meanNanos = config.thinkTime().toNanos();
+        if (meanNanos <= 0) {
+            return;
+        }
+        double sample = -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        TimeUnit.NANOSECONDS.sleep((long) (meanNanos * sample));
+    }
+    
+    private record UploadedFile(long id, String downloadLink) {
+    }
+    
+    private record Response(int status, byte[] body) {
+    }
+}
\ No newline at end of file
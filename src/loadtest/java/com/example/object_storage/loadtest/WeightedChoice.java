@@ -0,0 +1,45 @@
+package com.example.object_storage.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 가중치 비율대로 값을 고르는 분포 (작업 비율, 객체 크기 분포)
+ */
+public final class WeightedChoice<T> {
+    
+    private final List<T> values = new ArrayList<>();
+    private final long[] cumulative;
+    
+    public WeightedChoice(Map<T, Long> weights) {
+        cumulative = new long[weights.size()];
+        long total = 0;
+        for (Map.Entry<T, Long> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight: " + entry.getKey());
+            }
+            total += entry.getValue();
+            cumulative[values.size()] = total;
+            values.add(entry.getKey());
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Weights must not all be zero");
+        }
+    }
+    
+    public T pick() {
+        long point = ThreadLocalRandom.current().nextLong(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+    
+    public List<T> values() {
+        return values;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.example.object_storage.config;
 
+import com.example.object_storage.storage.ShardedResourceResolver;
+import com.example.object_storage.storage.StorageLayout;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,9 +19,13 @@ import java.nio.file.Paths;
 /**
  * 파일 스토리지 관련 설정을 담당하는 Configuration 클래스
  */
+@Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class FileStorageConfig implements WebMvcConfigurer {
     
+    private final StorageLayout storageLayout;
+    
     @Value("${file.upload.dir:./uploads}")
     private String uploadDir;
     
@@ -36,9 +44,9 @@ public class FileStorageConfig implements WebMvcConfigurer {
             Path uploadPath = Paths.get(uploadDir);
             if (!Files.exists(uploadPath)) {
                 Files.createDirectories(uploadPath);
-                System.out.println("Upload directory created: " + uploadPath.toAbsolutePath());
+                log.info("Upload directory created: {}", uploadPath.toAbsolutePath());
             } else {
-                System.out.println("Upload directory already exists: " + uploadPath.toAbsolutePath());
+                log.info("Upload directory already exists: {}", uploadPath.toAbsolutePath());
             }
             return uploadPath.toAbsolutePath().toString();
         } catch (IOException e) {
@@ -52,10 +60,13 @@ public class FileStorageConfig implements WebMvcConfigurer {
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // 업로드된 파일을 /files/** URL로 접근할 수 있도록 설정
+        // 저장된 Blob을 /files/{hash} URL로 접근할 수 있도록 설정 (분산 레이아웃 경로로 해석)
+        // 세그먼트/임시 파일이 노출되지 않도록 해시 키만 해석하고 PathResourceResolver로 넘기지 않음
         registry.addResourceHandler("/files/**")
                 .addResourceLocations("file:" + Paths.get(uploadDir).toAbsolutePath() + "/")
-                .setCachePeriod(3600); // 1시간 캐시
+                .setCachePeriod(3600) // 1시간 캐시
+                .resourceChain(true)
+                .addResolver(new ShardedResourceResolver(storageLayout));
                 
         // 기본 정적 리소스 설정 유지
         registry.addResourceHandler("/static/**")
@@ -1,7 +1,7 @@
 package com.example.object_storage.config;
 
 import com.example.object_storage.service.JwtService;
-import com.example.object_storage.service.UserService;
+import com.example.object_storage.service.StorageMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +9,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,7 +24,7 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
-    private final UserService userService;
+    private final StorageMetrics storageMetrics;
     
     @Override
     protected void doFilterInternal(
@@ -38,32 +37,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = jwtService.extractTokenFromHeader(authHeader);
         
         if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            long started = System.nanoTime();
             try {
-                // 토큰 유효성 검증
-                if (jwtService.validateToken(token)) {
-                    String username = jwtService.extractUsername(token);
-                    
-                    // 사용자 정보 로드
-                    userService.findByUsername(username).ifPresent(user -> {
-                        // Spring Security 인증 객체 생성
-                        UsernamePasswordAuthenticationToken authentication = 
-                            new UsernamePasswordAuthenticationToken(
-                                user.getUsername(),
-                                null,
-                                new ArrayList<>() // 권한 목록 (필요시 확장)
-                            );
-                        
-                        authentication.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
+                // 토큰 검증과 사용자 로드 (같은 토큰은 캐시된 결과 사용)
+                jwtService.authenticate(token).ifPresent(user -> {
+                    // Spring Security 인증 객체 생성 (컨트롤러는 @AuthenticationPrincipal로 User를 받음)
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(
+                            user,
+                            null,
+                            new ArrayList<>() // 권한 목록 (필요시 확장)
                         );
-                        
-                        // SecurityContext에 인증 정보 설정
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    });
-                }
+                    
+                    authentication.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                    );
+                    
+                    // SecurityContext에 인증 정보 설정
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                });
             } catch (Exception e) {
                 // 토큰 검증 실패 시 로그 출력
                 logger.error("JWT token validation failed: " + e.getMessage());
+            } finally {
+                storageMetrics.recordAuth(System.nanoTime() - started);
             }
         }
         
@@ -78,7 +75,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                path.startsWith("/login") || 
                path.startsWith("/download/") ||
                path.startsWith("/h2-console") ||
-               path.startsWith("/files/") ||
                path.equals("/") ||                       // 홈페이지
                path.startsWith("/static/");              // 정적 리소스
     }
@@ -0,0 +1,87 @@
+package com.example.object_storage.config;
+
+import com.example.object_storage.service.MetadataWriter;
+import com.example.object_storage.storage.BlobCompressor;
+import com.example.object_storage.storage.HotObjectCache;
+import com.example.object_storage.storage.TransferEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 기존 내부 통계(/stats/*)를 Micrometer 미터로 노출 (/actuator/prometheus)
+ * 값은 스크레이프 시점에 통계 객체에서 읽으므로 요청 경로에 추가 비용이 없다
+ */
+@Configuration
+public class MetricsConfig {
+    
+    /**
+     * 업로드/다운로드 누적 바이트와 전송 버퍼 풀 사용량
+     */
+    @Bean
+    public MeterBinder transferMetrics(TransferEngine transferEngine) {
+        return registry -> {
+            FunctionCounter.builder("storage.transfer.bytes", transferEngine, engine -> engine.stats().bytesIn())
+                    .tag("direction", "in")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("storage.transfer.bytes", transferEngine, engine -> engine.stats().bytesOut())
+                    .tag("direction", "out")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("storage.transfer.buffers.used", transferEngine, engine -> engine.stats().directPool().inUse())
+                    .tag("pool", "direct")
+                    .register(registry);
+            Gauge.builder("storage.transfer.buffers.used", transferEngine, engine -> engine.stats().heapPool().inUse())
+                    .tag("pool", "heap")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder cacheMetrics(HotObjectCache hotObjectCache) {
+        return registry -> {
+            FunctionCounter.builder("storage.cache.requests", hotObjectCache, cache -> cache.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("storage.cache.requests", hotObjectCache, cache -> cache.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("storage.cache.evictions", hotObjectCache, cache -> cache.stats().evictions())
+                    .register(registry);
+            Gauge.builder("storage.cache.size", hotObjectCache, cache -> cache.stats().bytes())
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder compressionMetrics(BlobCompressor blobCompressor) {
+        return registry -> {
+            FunctionCounter.builder("storage.compression.blobs", blobCompressor, compressor -> compressor.stats().compressed())
+                    .tag("result", "compressed")
+                    .register(registry);
+            FunctionCounter.builder("storage.compression.blobs", blobCompressor, compressor -> compressor.stats().skipped())
+                    .tag("result", "skipped")
+                    .register(registry);
+            FunctionCounter.builder("storage.compression.saved", blobCompressor,
+                            compressor -> compressor.stats().originalBytes() - compressor.stats().storedBytes())
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder metadataWriterMetrics(MetadataWriter metadataWriter) {
+        return registry -> {
+            Gauge.builder("storage.metadata.queued", metadataWriter, writer -> writer.stats().queued())
+                    .register(registry);
+            FunctionCounter.builder("storage.metadata.batches", metadataWriter, writer -> writer.stats().batches())
+                    .register(registry);
+            FunctionCounter.builder("storage.metadata.rows", metadataWriter, writer -> writer.stats().rows())
+                    .register(registry);
+        };
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.object_storage.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -25,11 +26,15 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // 비동기 응답(스트리밍, long-poll, SSE)의 재디스패치는 최초 요청에서 이미 인가됨
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 // 인증이 필요하지 않은 경로들
                 .requestMatchers("/register", "/login", "/download/**", "/h2-console/**", "/files/**").permitAll()
                 .requestMatchers("/", "/index.html", "/static/**", "/css/**", "/js/**", "/images/**").permitAll() // 정적 리소스
+                // 헬스 체크와 Prometheus 스크레이프 (노출 엔드포인트는 management.endpoints.web.exposure.include로 제한)
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 // 파일 업로드/관리는 인증 필요
-                .requestMatchers("/upload", "/files/*", "/files/*/permission").authenticated()
+                .requestMatchers("/upload", "/upload/batch", "/files/*", "/files/*/permission", "/files/*/presign", "/objects/**", "/uploads/**", "/changes/**", "/stats/**", "/quota").authenticated()
                 // 나머지는 모두 허용 (API 테스트용)
                 .anyRequest().permitAll()
             )
@@ -0,0 +1,39 @@
+package com.example.object_storage.config;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 스레드 실행 모드 설정
+ * spring.threads.virtual.enabled=true (Java 21 이상)이면 Tomcat 요청 처리, @Scheduled 작업, 비동기 응답과 함께
+ * 애플리케이션이 직접 만드는 백그라운드 스레드도 가상 스레드로 실행한다
+ * 빌드 툴체인은 17이므로 이 모드는 빌드 결과물을 Java 21 이상 런타임으로 실행할 때만 쓸 수 있고,
+ * 그보다 낮은 런타임에서 켜면 조용히 플랫폼 스레드로 돌지 않도록 시작을 중단한다
+ */
+@Configuration
+public class ThreadingConfig {
+    
+    /**
+     * 백그라운드 작업(변경 알림, 레이아웃 마이그레이션 등)용 스레드 팩토리
+     */
+    @Bean
+    public ThreadFactory backgroundThreadFactory(Environment environment) {
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && !Threading.VIRTUAL.isActive(environment)) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true requires a Java 21+ runtime, but this is Java "
+                    + Runtime.version().feature());
+        }
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("background-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("background-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
\ No newline at end of file
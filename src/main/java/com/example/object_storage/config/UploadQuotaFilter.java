@@ -0,0 +1,75 @@
+package com.example.object_storage.config;
+
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.QuotaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 업로드 요청을 선언된 Content-Length로 먼저 확인해 쿼터를 넘으면 본문을 읽기 전에 413으로 거절하는 필터
+ * Spring Security 필터 체인 뒤(인증된 사용자가 설정된 뒤), multipart 파싱 전에 실행된다
+ * 실제 예약은 저장 시점에 QuotaService가 다시 하므로 여기서는 확실히 넘는 요청만 거른다
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadQuotaFilter extends OncePerRequestFilter {
+    
+    // multipart 본문의 경계/헤더 몫 (파일 내용보다 약간 큰 Content-Length를 거절하지 않도록)
+    private static final long MULTIPART_OVERHEAD = 64 * 1024;
+    
+    private final QuotaService quotaService;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        
+        long contentLength = request.getContentLengthLong();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        
+        if (contentLength > 0 && authentication != null && authentication.getPrincipal() instanceof User user) {
+            boolean multipart = request.getContentType() != null
+                    && request.getContentType().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+            long declared = multipart ? Math.max(contentLength - MULTIPART_OVERHEAD, 0) : contentLength;
+            
+            if (quotaService.exceeds(user, declared, 1)) {
+                response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), Map.of("error", QuotaService.QUOTA_EXCEEDED));
+                return;
+            }
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        // 새 객체를 만드는 업로드 경로만
+        // multipart 파트는 업로드 시작 때 잡은 예약 안에서 기록되므로 (MultipartUploadService) 여기서 다시 세지 않음
+        if ("POST".equals(method)) {
+            return !(path.equals("/upload") || path.equals("/upload/batch"));
+        }
+        if ("PUT".equals(method)) {
+            return !path.startsWith("/objects/");
+        }
+        return true;
+    }
+}
\ No newline at end of file
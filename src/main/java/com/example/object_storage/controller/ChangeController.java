@@ -0,0 +1,121 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.dto.FileChangePage;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.ChangeFeedService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 동기화 클라이언트용 변경 조회 API
+ * 전체 목록(GET /files)은 처음 한 번만 받고, 이후에는 커서 이후의 변경만 받아 간다
+ */
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+    
+    private final ChangeFeedService changeFeedService;
+    
+    @Value("${file.changes.poll-max-timeout:PT60S}")
+    private Duration pollMaxTimeout;
+    
+    @Value("${file.changes.sse-timeout:PT30M}")
+    private Duration sseTimeout;
+    
+    /**
+     * since 이후의 변경 (since가 없으면 현재 커서만 반환)
+     */
+    @GetMapping
+    public ResponseEntity<?> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            return ResponseEntity.ok(changeFeedService.getChanges(user.getId(), since, limit));
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+    
+    /**
+     * long-poll: 변경이 생길 때까지 최대 timeout초 대기, 그동안 변경이 없으면 빈 목록
+     */
+    @GetMapping("/poll")
+    public DeferredResult<ResponseEntity<?>> pollChanges(
+            @RequestParam long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "30") long timeout,
+            @AuthenticationPrincipal User principal) {
+        
+        Duration wait = Duration.ofSeconds(Math.max(0, timeout));
+        if (wait.compareTo(pollMaxTimeout) > 0) {
+            wait = pollMaxTimeout;
+        }
+        
+        FileChangePage empty = new FileChangePage(List.of(), since, false);
+        DeferredResult<ResponseEntity<?>> response = new DeferredResult<>(wait.toMillis(), ResponseEntity.ok(empty));
+        try {
+            User user = requireUser(principal);
+            Runnable cancel = changeFeedService.awaitChanges(user.getId(), since, limit,
+                    page -> response.setResult(ResponseEntity.ok(page)));
+            response.onCompletion(cancel);
+        } catch (Exception e) {
+            response.setResult(errorResponse(e));
+        }
+        return response;
+    }
+    
+    /**
+     * SSE: since(또는 Last-Event-ID) 이후의 변경을 보내고 연결을 유지하며 새 변경을 계속 전송
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @AuthenticationPrincipal User principal,
+            HttpServletResponse response) {
+        
+        try {
+            User user = requireUser(principal);
+            long cursor = lastEventId != null ? lastEventId : since != null ? since : 0;
+            return changeFeedService.subscribe(user.getId(), cursor, sseTimeout);
+        } catch (Exception e) {
+            // 이벤트 스트림이므로 본문 없이 상태 코드만
+            response.setStatus(errorResponse(e).getStatusCode().value());
+            return null;
+        }
+    }
+    
+    private ResponseEntity<?> errorResponse(Exception e) {
+        if ("Change cursor expired".equals(e.getMessage())) {
+            // 클라이언트는 전체 목록을 다시 받아야 함
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+    
+    /**
+     * 인증 필터가 설정한 사용자 (토큰이 없거나 유효하지 않으면 null)
+     */
+    private User requireUser(User principal) {
+        if (principal == null) {
+            throw new RuntimeException("User not found");
+        }
+        return principal;
+    }
+}
\ No newline at end of file
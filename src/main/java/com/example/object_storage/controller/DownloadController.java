@@ -1,16 +1,25 @@
 package com.example.object_storage.controller;
 
-import com.example.object_storage.entity.FileMetadata;
+import com.example.object_storage.entity.FilePermission;
 import com.example.object_storage.service.FileStorageService;
+import com.example.object_storage.service.PresignedUrlService;
+import com.example.object_storage.service.ResolvedDownload;
+import com.example.object_storage.service.StorageMetrics;
+import com.example.object_storage.util.RangeResponseWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/download")
@@ -18,42 +27,166 @@ import java.util.Optional;
 public class DownloadController {
     
     private final FileStorageService fileStorageService;
+    private final RangeResponseWriter rangeResponseWriter;
+    private final PresignedUrlService presignedUrlService;
+    private final StorageMetrics storageMetrics;
+    
+    // 공개 객체를 재검증 없이 재사용할 수 있는 시간 (권한 변경이 CDN에 반영되는 최대 지연)
+    @Value("${file.download.public-max-age:PT1H}")
+    private Duration publicMaxAge;
     
     @GetMapping("/{linkId}")
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             @PathVariable String linkId,
-            @RequestParam(required = false) String password) {
+            @RequestParam(required = false) String password,
+            HttpServletRequest request,
+            HttpServletResponse response) {
         
-        try {
-            Resource resource = fileStorageService.downloadFile(linkId, password);
-            Optional<FileMetadata> fileOpt = fileStorageService.getFileByDownloadLink(linkId);
-            
-            if (fileOpt.isEmpty()) {
-                return ResponseEntity.notFound().build(); // 404
-            }
+        try (StorageMetrics.Operation operation = storageMetrics.start(StorageMetrics.DOWNLOAD)) {
+            // 링크 해석은 캐시된 descriptor 하나로 (메타데이터 조회는 캐시 미스일 때만, 권한/비밀번호 확인 포함)
+            ResolvedDownload download = fileStorageService.downloadFile(linkId, password);
+            operation.phase(StorageMetrics.PHASE_METADATA);
             
-            FileMetadata file = fileOpt.get();
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(file.getContentType()))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "attachment; filename=\"" + file.getOriginalFilename() + "\"")
-                    .body(resource);
-                    
+            transfer(operation, send(request, response, download, cacheControl(download.permission())));
+            operation.succeed();
+        
         } catch (RuntimeException e) {
-            // 메시지에 따른 적절한 HTTP 상태 코드 반환
-            String message = e.getMessage();
+            sendError(response, e);
+        } catch (Exception e) {
+            sendStatus(response, HttpStatus.INTERNAL_SERVER_ERROR); // 500
+        }
+    }
+    
+    /**
+     * 서명된 URL로 다운로드 (서명/만료 검증만 하고 메타데이터 조회 없이 바로 Blob을 전송)
+     */
+    @GetMapping("/s/{token}")
+    public void downloadPresigned(
+            @PathVariable String token,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        
+        try (StorageMetrics.Operation operation = storageMetrics.start(StorageMetrics.DOWNLOAD)) {
+            PresignedUrlService.PresignedDownload presigned = presignedUrlService.verify(token);
+            operation.phase(StorageMetrics.PHASE_AUTH);
             
-            if (message.contains("File not found")) {
-                return ResponseEntity.notFound().build(); // 404
-            } else if (message.contains("Access denied") || 
-                      message.contains("Invalid password")) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build(); // 403
+            // URL 자체가 권한이므로 만료 시각까지만 보관
+            Duration remaining = Duration.between(Instant.now(), presigned.expiresAt());
+            String cacheControl = CacheControl.maxAge(remaining.isNegative() ? Duration.ZERO : remaining)
+                    .cachePrivate().getHeaderValue();
+            transfer(operation, send(request, response, presigned.download(), cacheControl));
+            operation.succeed();
+        
+        } catch (RuntimeException e) {
+            sendError(response, e);
+        } catch (Exception e) {
+            sendStatus(response, HttpStatus.INTERNAL_SERVER_ERROR); // 500
+        }
+    }
+    
+    /**
+     * 해석된 다운로드를 응답으로 전송 (조건부 요청, 인코딩 협상, Range 처리)
+     * 본문의 전송 방식을 반환하고, 304로 본문이 없으면 null
+     */
+    private String send(HttpServletRequest request, HttpServletResponse response,
+                      ResolvedDownload download, String cacheControl) throws IOException {
+        // 저장 인코딩과 Accept-Encoding으로 보낼 표현을 먼저 정함 (표현마다 ETag가 다름)
+        String encoding = download.contentEncoding();
+        boolean sendEncoded = encoding != null && RangeResponseWriter.acceptsEncoding(request, encoding);
+        if (encoding != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        String etag = "\"" + download.blobHash() + (sendEncoded ? "-" + encoding : "") + "\"";
+        
+        // 조건부 요청은 캐시된 descriptor만으로 304 응답 (파일은 열지 않음)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(etag, download.lastModified())) {
+            return null;
+        }
+        
+        // Range 요청은 206으로, 작은 인기 객체는 캐시에서, 나머지는 sendfile/transferTo로 전송
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, 
+                "attachment; filename=\"" + download.originalFilename() + "\"");
+        ByteBuffer content = fileStorageService.getHotContent(download);
+        
+        // 압축 저장된 객체는 받을 수 있는 클라이언트에 압축본 그대로, 아니면 풀어서 전송
+        if (encoding != null && !sendEncoded) {
+            if (content != null) {
+                rangeResponseWriter.writeDecoded(request, response, content, download.fileSize(),
+                        download.contentType(), etag, download.lastModified());
             } else {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build(); // 500
+                rangeResponseWriter.writeDecoded(request, response, download.location(), download.fileSize(),
+                        download.contentType(), etag, download.lastModified());
             }
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build(); // 500
+            return StorageMetrics.TRANSFER_COPY;
+        }
+        if (sendEncoded) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        
+        if (content != null) {
+            rangeResponseWriter.write(request, response, content, download.contentType(), etag,
+                    download.lastModified());
+        } else {
+            rangeResponseWriter.write(request, response, download.location(), download.contentType(), etag,
+                    download.lastModified());
+        }
+        return RangeResponseWriter.usesSendfile(request)
+                ? StorageMetrics.TRANSFER_SENDFILE
+                : StorageMetrics.TRANSFER_COPY;
+    }
+    
+    /**
+     * 전송 방식을 계측에 기록 (304는 본문이 없으므로 디스크 단계 없음)
+     */
+    private void transfer(StorageMetrics.Operation operation, String mode) {
+        if (mode != null) {
+            operation.transfer(mode);
+        }
+    }
+    
+    /**
+     * 메시지에 따른 적절한 HTTP 상태 코드 반환
+     */
+    private void sendError(HttpServletResponse response, RuntimeException e) {
+        String message = String.valueOf(e.getMessage());
+        
+        if (message.contains("File not found")) {
+            sendStatus(response, HttpStatus.NOT_FOUND); // 404
+        } else if (message.contains("Access denied") || 
+                  message.contains("Invalid password") ||
+                  message.contains("Invalid signature") ||
+                  message.contains("Link expired") ||
+                  message.contains("Operation not allowed")) {
+            sendStatus(response, HttpStatus.FORBIDDEN); // 403
+        } else {
+            sendStatus(response, HttpStatus.INTERNAL_SERVER_ERROR); // 500
+        }
+    }
+    
+    /**
+     * 권한별 캐시 정책
+     * 공개 객체는 CDN/브라우저가 보관하되 권한 변경이 max-age 안에 반영되도록 하고,
+     * 비밀번호 보호 객체는 브라우저에만 두고 매번 재검증(비밀번호 확인 포함)하게 한다
+     */
+    private String cacheControl(FilePermission permission) {
+        if (permission == FilePermission.PUBLIC) {
+            return CacheControl.maxAge(publicMaxAge).cachePublic().getHeaderValue();
+        }
+        return CacheControl.noCache().cachePrivate().getHeaderValue();
+    }
+    
+    /**
+     * 본문 전송이 시작되기 전에만 상태 코드 설정 (전송 중 오류는 연결 종료로 드러남)
+     */
+    private void sendStatus(HttpServletResponse response, HttpStatus status) {
+        storageMetrics.recordDownloadError(status.value());
+        if (!response.isCommitted()) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, null);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, null);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            response.setHeader(HttpHeaders.ETAG, null);
+            response.setStatus(status.value());
         }
     }
 }
\ No newline at end of file
@@ -1,17 +1,43 @@
 package com.example.object_storage.controller;
 
+import com.example.object_storage.dto.ArchiveRequest;
+import com.example.object_storage.dto.BatchDeleteItem;
+import com.example.object_storage.dto.BatchDeleteRequest;
+import com.example.object_storage.dto.BatchResponse;
+import com.example.object_storage.dto.BatchUploadItem;
+import com.example.object_storage.dto.FileListPage;
+import com.example.object_storage.dto.FileListQuery;
 import com.example.object_storage.dto.FileMetadataDto;
 import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.dto.PresignedUrlResponse;
 import com.example.object_storage.entity.FilePermission;
 import com.example.object_storage.entity.User;
 import com.example.object_storage.service.FileStorageService;
-import com.example.object_storage.service.UserService;
-import com.example.object_storage.util.JwtUtil;
+import com.example.object_storage.service.PresignedUrlService;
+import com.example.object_storage.service.QuotaService;
+import com.example.object_storage.service.ResolvedDownload;
+import com.example.object_storage.util.ZipResponseWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,17 +46,22 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class FileController {
     
+    // 전체 목록 스트리밍 시 한 번에 조회하는 행 수
+    private static final int STREAM_BATCH_SIZE = 500;
+    
     private final FileStorageService fileStorageService;
-    private final UserService userService;
-    private final JwtUtil jwtUtil;
+    private final PresignedUrlService presignedUrlService;
+    private final QuotaService quotaService;
+    private final ZipResponseWriter zipResponseWriter;
+    private final ObjectMapper objectMapper;
     
     @PostMapping("/upload")
     public ResponseEntity<?> uploadFile(
             @RequestParam("file") MultipartFile file,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal User principal) {
         
         try {
-            User user = getUserFromToken(authHeader);
+            User user = requireUser(principal);
             FileUploadResponse response = fileStorageService.uploadFile(file, user);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -38,24 +69,80 @@ public class FileController {
         }
     }
     
-    @GetMapping("/files")
-    public ResponseEntity<?> getFiles(@RequestHeader("Authorization") String authHeader) {
+    /**
+     * 여러 파일을 한 요청으로 업로드 (파일별 결과 반환)
+     */
+    @PostMapping("/upload/batch")
+    public ResponseEntity<?> uploadFiles(
+            @RequestParam("files") List<MultipartFile> files,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            BatchResponse<BatchUploadItem> response = fileStorageService.uploadFiles(files, user);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * 요청 본문을 그대로 저장하는 스트리밍 업로드 (multipart 크기 제한과 임시 파일을 거치지 않음)
+     */
+    @PutMapping("/objects/{name}")
+    public ResponseEntity<?> putObject(
+            @PathVariable String name,
+            @AuthenticationPrincipal User principal,
+            HttpServletRequest request) {
+        
         try {
-            User user = getUserFromToken(authHeader);
-            List<FileMetadataDto> files = fileStorageService.getUserFiles(user);
-            return ResponseEntity.ok(files);
+            User user = requireUser(principal);
+            String contentType = request.getContentType() != null
+                    ? request.getContentType()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            FileUploadResponse response = fileStorageService.uploadStream(
+                    request.getInputStream(), name, contentType, request.getContentLengthLong(), user);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
     
+    /**
+     * 파일 목록
+     * limit/cursor가 있으면 한 페이지({items, nextCursor}), 없으면 전체 목록을 배열로 스트리밍
+     * 어느 쪽이든 배치 단위로 조회해 바로 쓰므로 목록 크기와 무관하게 메모리 사용량이 일정하다
+     */
+    @GetMapping("/files")
+    public ResponseEntity<StreamingResponseBody> getFiles(
+            @AuthenticationPrincipal User principal,
+            FileListQuery query) {
+        
+        try {
+            User user = requireUser(principal);
+            boolean paged = query.getLimit() != null || query.getCursor() != null;
+            if (!paged) {
+                query.setLimit(STREAM_BATCH_SIZE);
+            }
+            
+            // 첫 배치는 미리 조회해 잘못된 정렬/커서를 400으로 응답
+            FileListPage first = fileStorageService.getUserFiles(user, query);
+            StreamingResponseBody body = out -> writeFileList(out, user, query, first, paged);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (Exception e) {
+            Map<String, String> error = Map.of("error", String.valueOf(e.getMessage()));
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+    }
+    
     @GetMapping("/files/{id}")
     public ResponseEntity<?> getFileMetadata(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal User principal) {
         
         try {
-            User user = getUserFromToken(authHeader);
+            User user = requireUser(principal);
             Optional<FileMetadataDto> file = fileStorageService.getFileMetadata(id, user);
             
             if (file.isPresent()) {
@@ -72,10 +159,10 @@ public class FileController {
     public ResponseEntity<?> updateFilePermission(
             @PathVariable Long id,
             @RequestBody Map<String, String> request,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal User principal) {
         
         try {
-            User user = getUserFromToken(authHeader);
+            User user = requireUser(principal);
             FilePermission permission = FilePermission.valueOf(request.get("permission"));
             String password = request.get("password");
             
@@ -91,13 +178,87 @@ public class FileController {
         }
     }
     
+    /**
+     * 서명된 다운로드 URL 발급 (소유자만, 검증은 DB 없이 처리됨)
+     *
+     * @param expiresIn 유효 시간(초), 없으면 기본값
+     */
+    @PostMapping("/files/{id}/presign")
+    public ResponseEntity<?> presignDownload(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long expiresIn,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            Optional<PresignedUrlService.PresignedToken> presigned = presignedUrlService.presign(id, user, expiresIn);
+            
+            if (presigned.isPresent()) {
+                String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/download/s/{token}")
+                        .buildAndExpand(presigned.get().token())
+                        .toUriString();
+                LocalDateTime expiresAt = LocalDateTime.ofInstant(presigned.get().expiresAt(), ZoneId.systemDefault());
+                return ResponseEntity.ok(new PresignedUrlResponse(url, expiresAt));
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * 여러 파일을 하나의 ZIP으로 스트리밍 (임시 파일 없이 응답에 바로 기록)
+     * 대상 해석이 실패하면 전송 전에 400으로 응답한다
+     */
+    @PostMapping("/files/archive")
+    public void downloadArchive(
+            @RequestBody ArchiveRequest archiveRequest,
+            @AuthenticationPrincipal User principal,
+            HttpServletResponse response) throws IOException {
+        
+        List<ResolvedDownload> entries;
+        try {
+            entries = fileStorageService.resolveArchive(principal, archiveRequest.getFileIds(),
+                    archiveRequest.getDownloadLinks());
+        } catch (Exception e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("error", String.valueOf(e.getMessage())));
+            return;
+        }
+        
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"files.zip\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        zipResponseWriter.write(entries, response.getOutputStream());
+    }
+    
+    /**
+     * 여러 파일을 한 번에 삭제 (id별 결과 반환)
+     */
+    @PostMapping("/files/batch-delete")
+    public ResponseEntity<?> deleteFiles(
+            @RequestBody BatchDeleteRequest request,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            BatchResponse<BatchDeleteItem> response = fileStorageService.deleteFiles(request.getFileIds(), user);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/files/{id}")
     public ResponseEntity<?> deleteFile(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal User principal) {
         
         try {
-            User user = getUserFromToken(authHeader);
+            User user = requireUser(principal);
             boolean deleted = fileStorageService.deleteFile(id, user);
             
             if (deleted) {
@@ -110,10 +271,61 @@ public class FileController {
         }
     }
     
-    private User getUserFromToken(String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        String username = jwtUtil.getUsernameFromToken(token);
-        return userService.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * 내 저장 사용량과 쿼터
+     */
+    @GetMapping("/quota")
+    public ResponseEntity<?> getQuota(@AuthenticationPrincipal User principal) {
+        try {
+            User user = requireUser(principal);
+            return ResponseEntity.ok(quotaService.status(user));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    private void writeFileList(OutputStream out, User user, FileListQuery query,
+                               FileListPage first, boolean paged) throws IOException {
+        // 항목마다 flush하지 않고 배치 단위로만 flush
+        ObjectWriter writer = objectMapper.writerFor(FileMetadataDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (paged) {
+                generator.writeStartObject();
+                generator.writeFieldName("items");
+            }
+            generator.writeStartArray();
+            
+            FileListPage page = first;
+            while (true) {
+                for (FileMetadataDto item : page.getItems()) {
+                    writer.writeValue(generator, item);
+                }
+                generator.flush();
+                
+                if (paged || page.getNextCursor() == null) {
+                    break;
+                }
+                query.setCursor(page.getNextCursor());
+                page = fileStorageService.getUserFiles(user, query);
+            }
+            
+            generator.writeEndArray();
+            if (paged) {
+                generator.writeStringField("nextCursor", first.getNextCursor());
+                generator.writeEndObject();
+            }
+        }
+    }
+    
+    /**
+     * 인증 필터가 설정한 사용자 (토큰이 없거나 유효하지 않으면 null)
+     */
+    private User requireUser(User principal) {
+        if (principal == null) {
+            throw new RuntimeException("User not found");
+        }
+        return principal;
     }
 }
\ No newline at end of file
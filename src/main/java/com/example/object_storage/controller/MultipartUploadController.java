@@ -0,0 +1,119 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.dto.MultipartInitiateRequest;
+import com.example.object_storage.dto.MultipartUploadDto;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.MultipartUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 재개 가능한 multipart 업로드 API
+ * 클라이언트는 여러 연결에서 파트를 동시에 업로드하고, 끊긴 파트만 다시 보낼 수 있다
+ */
+@RestController
+@RequestMapping("/uploads")
+@RequiredArgsConstructor
+public class MultipartUploadController {
+    
+    private final MultipartUploadService multipartUploadService;
+    
+    @PostMapping
+    public ResponseEntity<?> initiate(
+            @RequestBody MultipartInitiateRequest request,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            MultipartUploadDto upload = multipartUploadService.initiate(request, user);
+            return ResponseEntity.status(HttpStatus.CREATED).body(upload);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @PutMapping("/{uploadId}/parts/{partNumber}")
+    public ResponseEntity<?> uploadPart(
+            @PathVariable String uploadId,
+            @PathVariable int partNumber,
+            @AuthenticationPrincipal User principal,
+            HttpServletRequest request) {
+        
+        try {
+            User user = requireUser(principal);
+            MultipartUploadDto upload = multipartUploadService.uploadPart(
+                    uploadId, partNumber, request.getInputStream(), user);
+            return ResponseEntity.ok(upload);
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+    
+    /**
+     * 업로드 상태 조회 (재개 시 이미 올라간 파트 확인용)
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> getStatus(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            return ResponseEntity.ok(multipartUploadService.getStatus(uploadId, user));
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+    
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<?> complete(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            FileUploadResponse response = multipartUploadService.complete(uploadId, user);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+    
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> abort(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal User principal) {
+        
+        try {
+            User user = requireUser(principal);
+            multipartUploadService.abort(uploadId, user);
+            return ResponseEntity.ok(Map.of("message", "Upload aborted successfully"));
+        } catch (Exception e) {
+            return errorResponse(e);
+        }
+    }
+    
+    private ResponseEntity<?> errorResponse(Exception e) {
+        if ("Upload not found".equals(e.getMessage())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+    
+    /**
+     * 인증 필터가 설정한 사용자 (토큰이 없거나 유효하지 않으면 null)
+     */
+    private User requireUser(User principal) {
+        if (principal == null) {
+            throw new RuntimeException("User not found");
+        }
+        return principal;
+    }
+}
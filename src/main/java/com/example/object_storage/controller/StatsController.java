@@ -0,0 +1,63 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.service.FileStorageService;
+import com.example.object_storage.service.MetadataWriter;
+import com.example.object_storage.storage.BlobCompressor;
+import com.example.object_storage.storage.HotObjectCache;
+import com.example.object_storage.storage.TransferEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 저장소 내부 상태(캐시 등) 조회용 API
+ */
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    
+    private final HotObjectCache hotObjectCache;
+    private final FileStorageService fileStorageService;
+    private final TransferEngine transferEngine;
+    private final BlobCompressor blobCompressor;
+    private final MetadataWriter metadataWriter;
+    
+    @GetMapping("/cache")
+    public ResponseEntity<HotObjectCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(hotObjectCache.stats());
+    }
+    
+    /**
+     * 초당 전송량과 버퍼 풀 사용 현황
+     */
+    @GetMapping("/transfer")
+    public ResponseEntity<TransferEngine.TransferStats> getTransferStats() {
+        return ResponseEntity.ok(transferEngine.stats());
+    }
+    
+    /**
+     * 압축 저장 현황 (압축/건너뛴 객체 수와 절약된 바이트)
+     */
+    @GetMapping("/compression")
+    public ResponseEntity<BlobCompressor.CompressionStats> getCompressionStats() {
+        return ResponseEntity.ok(blobCompressor.stats());
+    }
+    
+    /**
+     * 메타데이터 write-behind 현황 (대기 중인 요청 수와 평균 묶음 크기)
+     */
+    @GetMapping("/metadata-writer")
+    public ResponseEntity<MetadataWriter.WriterStats> getMetadataWriterStats() {
+        return ResponseEntity.ok(metadataWriter.stats());
+    }
+    
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCoalescingStats() {
+        return ResponseEntity.ok(fileStorageService.getCoalescingStats());
+    }
+}
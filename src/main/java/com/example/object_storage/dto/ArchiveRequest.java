@@ -0,0 +1,14 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 묶음(ZIP) 다운로드 대상 - 내 파일 id 또는 다운로드 링크 (요청 순서대로 담김)
+ */
+@Data
+public class ArchiveRequest {
+    private List<Long> fileIds;
+    private List<String> downloadLinks;
+}
\ No newline at end of file
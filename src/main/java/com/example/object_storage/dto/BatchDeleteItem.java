@@ -0,0 +1,15 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+/**
+ * 묶음 삭제의 id별 결과
+ */
+@Data
+@AllArgsConstructor
+public class BatchDeleteItem {
+    private Long fileId;
+    private boolean deleted;
+    private String error;
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchDeleteRequest {
+    private List<Long> fileIds;
+}
\ No newline at end of file
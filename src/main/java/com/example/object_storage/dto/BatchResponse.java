@@ -0,0 +1,17 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 묶음 요청 결과 - 항목별 결과(요청 순서)와 성공/실패 수
+ */
+@Data
+@AllArgsConstructor
+public class BatchResponse<T> {
+    private List<T> items;
+    private int succeeded;
+    private int failed;
+}
\ No newline at end of file
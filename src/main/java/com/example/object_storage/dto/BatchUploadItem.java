@@ -0,0 +1,15 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+/**
+ * 묶음 업로드의 파일별 결과 (성공이면 file, 실패면 error)
+ */
+@Data
+@AllArgsConstructor
+public class BatchUploadItem {
+    private String originalFilename;
+    private FileUploadResponse file;
+    private String error;
+}
\ No newline at end of file
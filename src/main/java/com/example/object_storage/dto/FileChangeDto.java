@@ -0,0 +1,20 @@
+package com.example.object_storage.dto;
+
+import com.example.object_storage.entity.FileChangeType;
+import com.example.object_storage.entity.FilePermission;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class FileChangeDto {
+    private Long changeId;
+    private FileChangeType type;
+    private Long fileId;
+    private String originalFilename;
+    private String contentType;
+    private Long fileSize;
+    private String downloadLink;
+    private FilePermission permission;
+    private LocalDateTime occurredAt;
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class FileChangePage {
+    private List<FileChangeDto> changes;
+    
+    // 다음 요청의 since 값 (마지막으로 반환된 변경 id)
+    private Long cursor;
+    
+    // 같은 커서로 바로 다시 요청하면 더 받을 변경이 있음
+    private boolean hasMore;
+}
\ No newline at end of file
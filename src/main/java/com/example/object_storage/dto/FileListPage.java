@@ -0,0 +1,15 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class FileListPage {
+    private List<FileMetadataDto> items;
+    
+    // 다음 페이지 조회용 커서, 마지막 페이지면 null
+    private String nextCursor;
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.object_storage.dto;
+
+import com.example.object_storage.entity.FilePermission;
+import lombok.Data;
+
+/**
+ * 파일 목록 조회 조건 (GET /files 쿼리 파라미터)
+ */
+@Data
+public class FileListQuery {
+    // uploadTime | name | size
+    private String sort = "uploadTime";
+    
+    // asc | desc
+    private String order = "desc";
+    
+    // 파일명 부분 일치 (대소문자 무시)
+    private String q;
+    
+    // Content-Type 접두사 (예: image/)
+    private String contentType;
+    
+    private FilePermission permission;
+    
+    // 이전 페이지의 nextCursor
+    private String cursor;
+    
+    // 페이지 크기, 없으면 전체 목록을 스트리밍
+    private Integer limit;
+}
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.example.object_storage.dto;
 
 import com.example.object_storage.entity.FilePermission;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // JPQL 생성자 projection에서 사용 (필드 순서 주의)
 public class FileMetadataDto {
     private Long id;
     private String originalFilename;
@@ -0,0 +1,11 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+
+@Data
+public class MultipartInitiateRequest {
+    private String filename;
+    private String contentType;
+    private Long partSize;
+    private Long totalSize;
+}
@@ -0,0 +1,15 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class MultipartUploadDto {
+    private String uploadId;
+    private String originalFilename;
+    private String contentType;
+    private Long partSize;
+    private Long totalSize;
+    private Map<Integer, Long> parts;
+}
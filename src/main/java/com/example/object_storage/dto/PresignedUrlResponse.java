@@ -0,0 +1,13 @@
+package com.example.object_storage.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class PresignedUrlResponse {
+    private String url;
+    private LocalDateTime expiresAt;
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.object_storage.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용(SHA-256)으로 식별되는 저장 객체
+ * 같은 내용을 올린 FileMetadata 행들이 하나의 Blob을 참조하며, 참조가 모두 사라지면 회수된다
+ */
+@Entity
+@Table(name = "blobs", indexes = @Index(name = "idx_blobs_segment_id", columnList = "segment_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Blob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    // 원본 내용의 크기 (해시도 원본 기준)
+    @Column(name = "blob_size", nullable = false)
+    private Long size;
+    
+    // 디스크에 실제로 놓인 바이트 수 (압축 저장이면 압축본 크기)
+    @Column(name = "stored_size", nullable = false)
+    private Long storedSize;
+    
+    // 저장 인코딩 (gzip이면 압축 저장, 원본 그대로면 null)
+    @Column(name = "content_encoding", length = 16)
+    private String encoding;
+    
+    // 원본 내용의 CRC-32 (ZIP STORED 항목을 한 번 읽기로 쓰기 위함), 모르면 null
+    @Column(name = "crc32")
+    private Long crc32;
+    
+    @Column(name = "ref_count", nullable = false)
+    private Long refCount;
+    
+    // 세그먼트 파일에 묶인 작은 객체의 위치 (단독 파일이면 null)
+    @Column(name = "segment_id")
+    private Long segmentId;
+    
+    @Column(name = "segment_offset")
+    private Long segmentOffset;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
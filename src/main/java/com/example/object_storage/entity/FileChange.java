@@ -0,0 +1,60 @@
+package com.example.object_storage.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 변경 기록 (동기화 클라이언트용 change feed)
+ * id가 사용자 안에서 단조 증가하므로 클라이언트는 마지막으로 본 id를 커서로 쓴다
+ */
+@Entity
+// 보존 기간 정리(occurred_at 기준)가 전체 테이블을 훑지 않도록 시각 인덱스를 둠
+@Table(name = "file_changes", indexes = {
+        @Index(name = "idx_file_changes_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_file_changes_occurred_at", columnList = "occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileChange {
+    // 소유자 락 안에서 할당되므로 한 소유자의 id는 기록 순서대로 증가
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_changes_seq")
+    @SequenceGenerator(name = "file_changes_seq", sequenceName = "file_changes_seq", allocationSize = 50)
+    private Long id;
+    
+    // 연관관계 대신 id만 보관 (조회 시 users 테이블을 건드리지 않음)
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FileChangeType type;
+    
+    @Column(name = "file_id", nullable = false)
+    private Long fileId;
+    
+    private String originalFilename;
+    
+    private String contentType;
+    
+    private Long fileSize;
+    
+    @Column(name = "download_link")
+    private String downloadLink;
+    
+    @Enumerated(EnumType.STRING)
+    private FilePermission permission;
+    
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        occurredAt = LocalDateTime.now();
+    }
+}
\ No newline at end of file
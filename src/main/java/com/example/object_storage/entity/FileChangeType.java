@@ -0,0 +1,7 @@
+package com.example.object_storage.entity;
+
+public enum FileChangeType {
+    UPLOADED,
+    DELETED,
+    PERMISSION_CHANGED
+}
\ No newline at end of file
@@ -8,20 +8,29 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "file_metadata")
+// 소유자별 목록의 기본 정렬(업로드 시각, id)을 keyset으로 읽기 위한 인덱스와 소유자와 무관한 기간 조회용 인덱스
+// (download_link는 unique 제약의 인덱스를 사용)
+@Table(name = "file_metadata",
+        indexes = {
+            @Index(name = "idx_file_metadata_owner_upload", columnList = "owner_id, upload_time, id"),
+            @Index(name = "idx_file_metadata_upload_time", columnList = "upload_time")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class FileMetadata {
+    // 시퀀스에서 50개씩 미리 받아 id를 메모리에서 할당 (IDENTITY와 달리 INSERT 배치가 가능)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_metadata_seq")
+    @SequenceGenerator(name = "file_metadata_seq", sequenceName = "file_metadata_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
     private String originalFilename;
     
-    @Column(nullable = false)
-    private String storedFilename;
+    // 내용을 담고 있는 Blob의 SHA-256
+    @Column(name = "blob_hash", nullable = false, length = 64)
+    private String blobHash;
     
     @Column(nullable = false)
     private String contentType;
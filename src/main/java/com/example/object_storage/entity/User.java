@@ -15,7 +15,8 @@ import java.util.List;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -30,6 +31,13 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // 사용자별 쿼터 (null이면 file.quota 기본값)
+    @Column(name = "quota_bytes")
+    private Long quotaBytes;
+    
+    @Column(name = "quota_objects")
+    private Long quotaObjects;
+    
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL)
     private List<FileMetadata> files;
     
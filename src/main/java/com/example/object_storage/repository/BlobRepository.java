@@ -0,0 +1,39 @@
+package com.example.object_storage.repository;
+
+import com.example.object_storage.entity.Blob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface BlobRepository extends JpaRepository<Blob, String> {
+    
+    @Transactional
+    @Modifying
+    @Query("update Blob b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+    
+    @Transactional
+    @Modifying
+    @Query("update Blob b set b.refCount = b.refCount - :count where b.hash = :hash and b.refCount >= :count")
+    int decrementRefCount(@Param("hash") String hash, @Param("count") long count);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from Blob b where b.hash = :hash and b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+    
+    List<Blob> findBySegmentId(Long segmentId);
+    
+    boolean existsBySegmentId(Long segmentId);
+    
+    @Transactional
+    @Modifying
+    @Query("update Blob b set b.segmentId = :segmentId, b.segmentOffset = :offset where b.hash = :hash")
+    int updateLocation(@Param("hash") String hash, @Param("segmentId") Long segmentId, @Param("offset") Long offset);
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.object_storage.repository;
+
+import com.example.object_storage.entity.FileChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileChangeRepository extends JpaRepository<FileChange, Long> {
+    
+    List<FileChange> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long id, Pageable pageable);
+    
+    @Query("select coalesce(max(c.id), 0) from FileChange c where c.ownerId = :ownerId")
+    long findLatestId(@Param("ownerId") Long ownerId);
+    
+    @Query("select coalesce(min(c.id), 0) from FileChange c")
+    long findOldestId();
+    
+    @Query("select coalesce(max(c.id), 0) from FileChange c where c.occurredAt < :threshold")
+    long findMaxIdBefore(@Param("threshold") LocalDateTime threshold);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from FileChange c where c.id <= :id")
+    int deleteUpTo(@Param("id") Long id);
+}
\ No newline at end of file
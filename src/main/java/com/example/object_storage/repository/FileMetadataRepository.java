@@ -2,15 +2,39 @@ package com.example.object_storage.repository;
 
 import com.example.object_storage.entity.FileMetadata;
 import com.example.object_storage.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long> {
-    List<FileMetadata> findByOwner(User owner);
+public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long>, FileMetadataRepositoryCustom {
     Optional<FileMetadata> findByDownloadLink(String downloadLink);
+    
+    // 다운로드 링크 해석 [FileMetadata, Blob] (메타데이터와 저장 정보를 한 쿼리로, Blob이 없으면 null)
+    @Query("select f, b from FileMetadata f left join Blob b on b.hash = f.blobHash where f.downloadLink = :downloadLink")
+    List<Object[]> findWithBlobByDownloadLink(@Param("downloadLink") String downloadLink);
     Optional<FileMetadata> findByIdAndOwner(Long id, User owner);
+    List<FileMetadata> findByOwnerAndIdIn(User owner, Collection<Long> ids);
+    
+    // 묶음 삭제 대상 (같은 파일을 동시에 지우는 요청이 참조 수를 두 번 내리지 않도록 행을 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from FileMetadata f where f.owner = :owner and f.id in :ids")
+    List<FileMetadata> findForDeleteByOwnerAndIdIn(@Param("owner") User owner, @Param("ids") Collection<Long> ids);
+    
+    // 소유자 범위의 묶음 삭제 (호출하는 쪽 트랜잭션에 참여)
+    @Modifying
+    @Query("delete from FileMetadata f where f.owner = :owner and f.id in :ids")
+    int deleteByOwnerAndIdIn(@Param("owner") User owner, @Param("ids") Collection<Long> ids);
+    
+    // 소유자별 사용량 [ownerId, sum(fileSize), count] (파일이 없는 소유자는 결과에 없음)
+    @Query("select f.owner.id, coalesce(sum(f.fileSize), 0), count(f) from FileMetadata f where f.owner.id in :ownerIds group by f.owner.id")
+    List<Object[]> sumUsageByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
 }
\ No newline at end of file
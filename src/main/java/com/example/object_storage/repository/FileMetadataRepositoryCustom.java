@@ -0,0 +1,13 @@
+package com.example.object_storage.repository;
+
+import com.example.object_storage.dto.FileListPage;
+import com.example.object_storage.dto.FileListQuery;
+
+public interface FileMetadataRepositoryCustom {
+    
+    /**
+     * 소유자의 파일 목록을 keyset(커서) 방식으로 한 페이지 조회
+     * 엔티티 대신 DTO 컬럼만 가져오므로 owner 연관관계를 행마다 로딩하지 않는다
+     */
+    FileListPage findPageByOwner(Long ownerId, FileListQuery query);
+}
\ No newline at end of file
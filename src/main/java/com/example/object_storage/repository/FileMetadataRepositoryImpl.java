@@ -0,0 +1,142 @@
+package com.example.object_storage.repository;
+
+import com.example.object_storage.dto.FileListPage;
+import com.example.object_storage.dto.FileListQuery;
+import com.example.object_storage.dto.FileMetadataDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 파일 목록 keyset 페이지 조회 구현
+ * OFFSET 없이 (정렬 키, id) 다음 위치부터 읽으므로 뒤쪽 페이지도 첫 페이지와 같은 비용이다
+ */
+public class FileMetadataRepositoryImpl implements FileMetadataRepositoryCustom {
+    
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public FileListPage findPageByOwner(Long ownerId, FileListQuery query) {
+        SortKey sortKey = SortKey.of(query.getSort());
+        boolean ascending = "asc".equalsIgnoreCase(query.getOrder());
+        int limit = query.getLimit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(query.getLimit(), MAX_LIMIT));
+        
+        StringBuilder jpql = new StringBuilder(
+            "select new com.example.object_storage.dto.FileMetadataDto("
+            + "f.id, f.originalFilename, f.contentType, f.fileSize, f.uploadTime, f.downloadLink, o.username, f.permission) "
+            + "from FileMetadata f join f.owner o where o.id = :ownerId");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("ownerId", ownerId);
+        
+        // 필터
+        if (StringUtils.hasText(query.getQ())) {
+            jpql.append(" and lower(f.originalFilename) like :name escape '\\'");
+            parameters.put("name", "%" + escapeLike(query.getQ().toLowerCase()) + "%");
+        }
+        if (StringUtils.hasText(query.getContentType())) {
+            jpql.append(" and f.contentType like :contentType escape '\\'");
+            parameters.put("contentType", escapeLike(query.getContentType()) + "%");
+        }
+        if (query.getPermission() != null) {
+            jpql.append(" and f.permission = :permission");
+            parameters.put("permission", query.getPermission());
+        }
+        
+        // 커서 다음 위치부터 (정렬 키가 같으면 id로 구분)
+        String field = "f." + sortKey.field;
+        String comparison = ascending ? ">" : "<";
+        if (StringUtils.hasText(query.getCursor())) {
+            Cursor cursor = decodeCursor(query.getCursor(), sortKey);
+            jpql.append(" and (").append(field).append(' ').append(comparison).append(" :cursorValue")
+                .append(" or (").append(field).append(" = :cursorValue and f.id ").append(comparison).append(" :cursorId))");
+            parameters.put("cursorValue", cursor.value());
+            parameters.put("cursorId", cursor.id());
+        }
+        
+        String direction = ascending ? "asc" : "desc";
+        jpql.append(" order by ").append(field).append(' ').append(direction).append(", f.id ").append(direction);
+        
+        TypedQuery<FileMetadataDto> typedQuery = entityManager.createQuery(jpql.toString(), FileMetadataDto.class);
+        parameters.forEach(typedQuery::setParameter);
+        
+        // 한 건 더 읽어 다음 페이지 존재 여부 확인
+        List<FileMetadataDto> rows = typedQuery.setMaxResults(limit + 1).getResultList();
+        if (rows.size() <= limit) {
+            return new FileListPage(rows, null);
+        }
+        
+        List<FileMetadataDto> items = new ArrayList<>(rows.subList(0, limit));
+        return new FileListPage(items, encodeCursor(items.get(limit - 1), sortKey));
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * 커서 = base64url("정렬 키 값|id")
+     */
+    private static String encodeCursor(FileMetadataDto last, SortKey sortKey) {
+        String raw = sortKey.extractor.apply(last) + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Cursor decodeCursor(String cursor, SortKey sortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // 파일명에 '|'가 있을 수 있으므로 마지막 구분자로 나눔
+            int separator = raw.lastIndexOf('|');
+            Object value = sortKey.parser.apply(raw.substring(0, separator));
+            return new Cursor(value, Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    private enum SortKey {
+        UPLOAD_TIME("uploadTime", "uploadTime", dto -> String.valueOf(dto.getUploadTime()), LocalDateTime::parse),
+        NAME("name", "originalFilename", FileMetadataDto::getOriginalFilename, value -> value),
+        SIZE("size", "fileSize", dto -> String.valueOf(dto.getFileSize()), Long::valueOf);
+        
+        private final String parameter;
+        private final String field;
+        private final Function<FileMetadataDto, String> extractor;
+        private final Function<String, Object> parser;
+        
+        SortKey(String parameter, String field, Function<FileMetadataDto, String> extractor, Function<String, Object> parser) {
+            this.parameter = parameter;
+            this.field = field;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+        
+        static SortKey of(String parameter) {
+            if (parameter == null) {
+                return UPLOAD_TIME;
+            }
+            for (SortKey key : values()) {
+                if (key.parameter.equalsIgnoreCase(parameter)) {
+                    return key;
+                }
+            }
+            throw new RuntimeException("Invalid sort: " + parameter);
+        }
+    }
+    
+    private record Cursor(Object value, long id) {
+    }
+}
\ No newline at end of file
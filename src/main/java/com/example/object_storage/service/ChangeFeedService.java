@@ -0,0 +1,382 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.dto.FileChangeDto;
+import com.example.object_storage.dto.FileChangePage;
+import com.example.object_storage.entity.FileChange;
+import com.example.object_storage.entity.FileChangeType;
+import com.example.object_storage.entity.FileMetadata;
+import com.example.object_storage.repository.FileChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 파일 변경(업로드/삭제/권한 변경)을 사용자별로 기록하는 change feed
+ * 클라이언트는 마지막 커서 이후의 변경만 받아 가며, long-poll 또는 SSE로 새 변경을 기다릴 수 있다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+    
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_LIMIT = 1000;
+    
+    private final FileChangeRepository fileChangeRepository;
+    private final ThreadFactory backgroundThreadFactory;
+    
+    // 같은 사용자의 기록은 id 할당과 커밋 순서가 같도록 직렬화
+    // (늦게 커밋된 작은 id를 클라이언트가 건너뛰지 않도록)
+    private final ReentrantLock[] ownerLocks = new ReentrantLock[LOCK_STRIPES];
+    
+    // 사용자 id -> 새 변경을 기다리는 long-poll 요청 / SSE 구독
+    private final ConcurrentMap<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    
+    // 요청 스레드를 붙잡지 않도록 알림 전달은 별도 스레드 풀에서
+    // 대기 요청마다, SSE 구독자마다 따로 작업을 넘겨 느린 구독자 하나가 다른 구독자의 전달을 막지 않게 함
+    private ExecutorService deliveries;
+    
+    // 이 id 이하의 변경은 정리되어 더 이상 제공할 수 없음
+    private volatile long prunedThroughId;
+    
+    @Value("${file.changes.retention:P30D}")
+    private Duration retention;
+    
+    @Value("${file.changes.delivery-threads:4}")
+    private int deliveryThreads;
+    
+    // 따라잡은 뒤에 이만큼 넘게 밀린 SSE 구독자는 연결을 끊음 (Last-Event-ID로 다시 붙어 이어 받음)
+    @Value("${file.changes.sse-max-backlog:5000}")
+    private int sseMaxBacklog;
+    
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            ownerLocks[i] = new ReentrantLock();
+        }
+        deliveries = Executors.newFixedThreadPool(deliveryThreads, backgroundThreadFactory);
+        long oldest = fileChangeRepository.findOldestId();
+        prunedThroughId = oldest > 0 ? oldest - 1 : 0;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        deliveries.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+    
+    /**
+     * 변경 기록 후 대기 중인 클라이언트에 알림 (트랜잭션 안이면 커밋 후)
+     */
+    public void record(FileChangeType type, FileMetadata file) {
+        recordAll(type, List.of(file));
+    }
+    
+    /**
+     * 여러 파일 변경을 한 번에 기록 (묶음 업로드/삭제, 메타데이터 묶음 기록)
+     * 트랜잭션 안에서 호출되면 커밋(또는 롤백)까지 소유자 락을 유지해 id 순서와 커밋 순서를 맞춘다
+     * 여러 소유자가 섞여 있으면 교착을 피하도록 락 스트라이프 순서대로 잡는다
+     */
+    public void recordAll(FileChangeType type, List<FileMetadata> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        
+        Map<Integer, List<FileChange>> changesByStripe = new TreeMap<>();
+        Set<Long> ownerIds = new LinkedHashSet<>();
+        for (FileMetadata file : files) {
+            Long ownerId = file.getOwner().getId();
+            ownerIds.add(ownerId);
+            
+            FileChange change = new FileChange();
+            change.setOwnerId(ownerId);
+            change.setType(type);
+            change.setFileId(file.getId());
+            change.setOriginalFilename(file.getOriginalFilename());
+            change.setContentType(file.getContentType());
+            change.setFileSize(file.getFileSize());
+            change.setDownloadLink(file.getDownloadLink());
+            change.setPermission(file.getPermission());
+            changesByStripe.computeIfAbsent(stripeOf(ownerId), key -> new ArrayList<>()).add(change);
+        }
+        
+        List<ReentrantLock> held = new ArrayList<>(changesByStripe.size());
+        try {
+            for (Map.Entry<Integer, List<FileChange>> entry : changesByStripe.entrySet()) {
+                ReentrantLock lock = ownerLocks[entry.getKey()];
+                lock.lock();
+                held.add(lock);
+                fileChangeRepository.saveAll(entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            held.forEach(ReentrantLock::unlock);
+            throw e;
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ownerIds.forEach(ChangeFeedService.this::notifyOwner);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    held.forEach(ReentrantLock::unlock);
+                }
+            });
+        } else {
+            held.forEach(ReentrantLock::unlock);
+            ownerIds.forEach(this::notifyOwner);
+        }
+    }
+    
+    /**
+     * since 이후의 변경을 오래된 순으로 조회
+     * since가 없으면 변경 없이 현재 커서만 반환 (전체 목록을 받은 직후의 시작점)
+     * 변경이 모두 정리된 사용자도 바로 만료되지 않도록 커서는 정리된 위치보다 작아지지 않는다
+     */
+    public FileChangePage getChanges(Long ownerId, Long since, int limit) {
+        if (since == null) {
+            long latest = Math.max(fileChangeRepository.findLatestId(ownerId), prunedThroughId);
+            return new FileChangePage(List.of(), latest, false);
+        }
+        if (since < prunedThroughId) {
+            throw new RuntimeException("Change cursor expired");
+        }
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<FileChange> changes = fileChangeRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(
+                ownerId, since, PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+        long cursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).getId();
+        return new FileChangePage(changes.stream().map(this::convertToDto).collect(Collectors.toList()), cursor, hasMore);
+    }
+    
+    /**
+     * long-poll: 변경이 있으면 바로, 없으면 새 변경이 생길 때 onChanges를 한 번 호출
+     * 
+     * @return 대기를 취소하는 콜백 (응답 완료/timeout 시 호출)
+     */
+    public Runnable awaitChanges(Long ownerId, long since, int limit, Consumer<FileChangePage> onChanges) {
+        Waiter waiter = new Waiter(since, limit, onChanges);
+        Runnable cancel = () -> unregister(waiters, ownerId, waiter);
+        
+        // 조회 전에 등록해야 조회와 등록 사이에 생긴 변경을 놓치지 않음
+        register(waiters, ownerId, waiter);
+        FileChangePage page;
+        try {
+            page = getChanges(ownerId, since, limit);
+        } catch (RuntimeException e) {
+            cancel.run();
+            throw e;
+        }
+        if (!page.getChanges().isEmpty()) {
+            cancel.run();
+            onChanges.accept(page);
+        }
+        return cancel;
+    }
+    
+    /**
+     * SSE 구독: since 이후의 변경을 먼저 보내고, 이후 변경을 계속 전달
+     */
+    public SseEmitter subscribe(Long ownerId, long since, Duration timeout) {
+        if (since < prunedThroughId) {
+            throw new RuntimeException("Change cursor expired");
+        }
+        
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(ownerId, emitter, since);
+        
+        register(subscribers, ownerId, subscriber);
+        emitter.onCompletion(() -> unregister(subscribers, ownerId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unregister(subscribers, ownerId, subscriber));
+        
+        signal(subscriber);
+        return emitter;
+    }
+    
+    /**
+     * 보존 기간이 지난 변경 정리
+     */
+    @Scheduled(fixedDelayString = "${file.changes.prune-interval:PT1H}")
+    public void prune() {
+        long maxId = fileChangeRepository.findMaxIdBefore(LocalDateTime.now().minus(retention));
+        if (maxId > prunedThroughId) {
+            // 먼저 올려 두어 정리 중인 구간을 읽는 요청은 410으로 응답
+            prunedThroughId = maxId;
+            int deleted = fileChangeRepository.deleteUpTo(maxId);
+            log.info("Pruned {} file changes up to id {}", deleted, maxId);
+        }
+    }
+    
+    private void notifyOwner(Long ownerId) {
+        for (Waiter waiter : waiters.getOrDefault(ownerId, Set.of())) {
+            deliveries.execute(() -> deliver(ownerId, waiter));
+        }
+        for (Subscriber subscriber : subscribers.getOrDefault(ownerId, Set.of())) {
+            signal(subscriber);
+        }
+    }
+    
+    private void deliver(Long ownerId, Waiter waiter) {
+        try {
+            FileChangePage page = getChanges(ownerId, waiter.since(), waiter.limit());
+            if (!page.getChanges().isEmpty()) {
+                unregister(waiters, ownerId, waiter);
+                waiter.onChanges().accept(page);
+            }
+        } catch (RuntimeException e) {
+            // 대기 중인 요청은 timeout으로 끝나고 다음 요청에서 오류를 받음
+            log.warn("Could not deliver changes to waiting request: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 구독자에게 새 변경이 있음을 알림
+     * 구독자마다 전달 작업은 최대 하나만 예약/실행되고, 실행 중에 온 알림은 그 작업이 한 번 더 돌며 처리한다
+     * (전달은 항상 커서 이후를 모두 읽으므로 알림을 합쳐도 빠지는 변경이 없음)
+     */
+    private void signal(Subscriber subscriber) {
+        if (subscriber.signals.getAndIncrement() == 0) {
+            deliveries.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        int seen;
+        do {
+            seen = subscriber.signals.get();
+            if (!deliver(subscriber)) {
+                return;
+            }
+        } while (!subscriber.signals.compareAndSet(seen, 0));
+    }
+    
+    /**
+     * 구독자가 마지막으로 받은 변경 이후를 모두 전송 (구독자당 한 스레드에서만 실행)
+     * 처음 따라잡은 뒤에 밀린 변경이 sseMaxBacklog를 넘으면 따라오지 못하는 구독자로 보고 연결을 끊는다
+     * 
+     * @return 구독이 계속 유효하면 true
+     */
+    private boolean deliver(Subscriber subscriber) {
+        try {
+            FileChangePage page;
+            int sent = 0;
+            do {
+                if (subscriber.caughtUp && sent >= sseMaxBacklog) {
+                    log.info("Closing change stream of user {} that fell {}+ changes behind", subscriber.ownerId, sent);
+                    subscriber.emitter.complete();
+                    return false;
+                }
+                page = getChanges(subscriber.ownerId, subscriber.cursor, MAX_LIMIT);
+                for (FileChangeDto change : page.getChanges()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getChangeId()))
+                            .name("change")
+                            .data(change));
+                }
+                sent += page.getChanges().size();
+                subscriber.cursor = page.getCursor();
+            } while (page.isHasMore());
+            subscriber.caughtUp = true;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // 연결이 끊겼거나 커서가 만료됨
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+    
+    private static <T> void register(ConcurrentMap<Long, Set<T>> registry, Long ownerId, T entry) {
+        registry.compute(ownerId, (key, set) -> {
+            Set<T> entries = set != null ? set : ConcurrentHashMap.newKeySet();
+            entries.add(entry);
+            return entries;
+        });
+    }
+    
+    private static <T> void unregister(ConcurrentMap<Long, Set<T>> registry, Long ownerId, T entry) {
+        registry.computeIfPresent(ownerId, (key, set) -> {
+            set.remove(entry);
+            return set.isEmpty() ? null : set;
+        });
+    }
+    
+    private int stripeOf(Long ownerId) {
+        return Math.floorMod(ownerId.hashCode(), LOCK_STRIPES);
+    }
+    
+    private FileChangeDto convertToDto(FileChange change) {
+        FileChangeDto dto = new FileChangeDto();
+        dto.setChangeId(change.getId());
+        dto.setType(change.getType());
+        dto.setFileId(change.getFileId());
+        dto.setOriginalFilename(change.getOriginalFilename());
+        dto.setContentType(change.getContentType());
+        dto.setFileSize(change.getFileSize());
+        dto.setDownloadLink(change.getDownloadLink());
+        dto.setPermission(change.getPermission());
+        dto.setOccurredAt(change.getOccurredAt());
+        return dto;
+    }
+    
+    private record Waiter(long since, int limit, Consumer<FileChangePage> onChanges) {
+    }
+    
+    private static final class Subscriber {
+        
+        private final Long ownerId;
+        private final SseEmitter emitter;
+        
+        // 처리하지 않은 알림 수 (0이 아니면 전달 작업이 예약/실행 중)
+        private final AtomicInteger signals = new AtomicInteger();
+        
+        // 아래 값은 전달 작업 안에서만 갱신 (signals로 작업 간 순서가 보장됨)
+        // 마지막으로 전송한 변경 id
+        private long cursor;
+        
+        // 구독 직후의 밀린 변경을 모두 보냈는지
+        private boolean caughtUp;
+        
+        private Subscriber(Long ownerId, SseEmitter emitter, long cursor) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
\ No newline at end of file
@@ -1,64 +1,299 @@
 package com.example.object_storage.service;
 
+import com.example.object_storage.dto.BatchDeleteItem;
+import com.example.object_storage.dto.BatchResponse;
+import com.example.object_storage.dto.BatchUploadItem;
+import com.example.object_storage.dto.FileListPage;
+import com.example.object_storage.dto.FileListQuery;
 import com.example.object_storage.dto.FileMetadataDto;
 import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.entity.FileChangeType;
 import com.example.object_storage.entity.FileMetadata;
 import com.example.object_storage.entity.FilePermission;
 import com.example.object_storage.entity.User;
 import com.example.object_storage.repository.FileMetadataRepository;
+import com.example.object_storage.storage.BlobLocation;
+import com.example.object_storage.storage.BlobStore;
+import com.example.object_storage.storage.HotObjectCache;
+import com.example.object_storage.storage.StoredBlob;
+import com.example.object_storage.util.ExpiringCache;
+import com.example.object_storage.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
     
     private final FileMetadataRepository fileMetadataRepository;
+    private final BlobStore blobStore;
+    private final HotObjectCache hotObjectCache;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final MetadataWriter metadataWriter;
+    private final StorageMetrics storageMetrics;
+    private final QuotaService quotaService;
     
-    @Value("${file.upload.dir:./uploads}")
-    private String uploadDir;
+    // 같은 링크에 대한 동시 해석과 디스크 읽기를 하나로 합침
+    private final SingleFlight<String, ResolvedDownload> downloadResolutions = new SingleFlight<>();
+    private final SingleFlight<String, ByteBuffer> contentLoads = new SingleFlight<>();
+    
+    // 다운로드 링크 -> 해석 결과 (read-through, 권한 변경/삭제 시 무효화)
+    private ExpiringCache<String, ResolvedDownload> downloadCache;
+    
+    @Value("${file.download.resolve-cache.max-entries:10000}")
+    private int downloadCacheMaxEntries;
+    
+    // 캐시된 저장 위치가 컴팩션 후에도 유효하도록 세그먼트 유예 기간보다 짧게 유지
+    @Value("${file.download.resolve-cache.ttl:PT1M}")
+    private Duration downloadCacheTtl;
+    
+    // 묶음 업로드/삭제 한 번에 처리하는 최대 파일 수
+    @Value("${file.batch.max-items:1000}")
+    private int batchMaxItems;
+    
+    // 묶음 다운로드 한 번에 담을 수 있는 최대 파일 수
+    @Value("${file.download.archive.max-entries:1000}")
+    private int archiveMaxEntries;
+    
+    // 스트리밍 업로드(PUT /objects/{name})의 최대 크기
+    @Value("${file.upload.stream-max-size:5GB}")
+    private DataSize streamMaxSize;
+    
+    @PostConstruct
+    public void init() {
+        downloadCache = new ExpiringCache<>(downloadCacheMaxEntries);
+    }
     
     public FileUploadResponse uploadFile(MultipartFile file, User owner) throws IOException {
-        // 저장 디렉토리 생성
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        try (StorageMetrics.Operation operation = storageMetrics.start(StorageMetrics.UPLOAD);
+             QuotaService.Reservation reservation = quotaService.reserve(owner, file.getSize(), 1)) {
+            // 파일명 확인
+            String originalFilename = file.getOriginalFilename();
+            
+            // 내용 해시로 저장 (같은 내용이 이미 있으면 참조만 추가)
+            StoredBlob blob = blobStore.store(file.getInputStream(), Long.MAX_VALUE);
+            resizeReservation(reservation, blob);
+            operation.phase(StorageMetrics.PHASE_DISK);
+            
+            // 메타데이터 저장
+            FileUploadResponse response = saveMetadata(originalFilename, blob, file.getContentType(), owner);
+            reservation.commit();
+            operation.phase(StorageMetrics.PHASE_METADATA);
+            return operation.succeed(response);
+        }
+    }
+    
+    /**
+     * 요청 본문 스트림을 저장소에 바로 기록 (multipart 임시 파일 없이 한 번만 쓰기)
+     * 
+     * @param in 요청 본문 스트림
+     * @param originalFilename 원본 파일명
+     * @param contentType 요청 Content-Type
+     * @param contentLength 선언된 Content-Length, 알 수 없으면 -1
+     * @param owner 소유자
+     */
+    public FileUploadResponse uploadStream(InputStream in, String originalFilename, String contentType,
+                                           long contentLength, User owner) throws IOException {
+        try (StorageMetrics.Operation operation = storageMetrics.start(StorageMetrics.UPLOAD)) {
+            long maxSize = streamMaxSize.toBytes();
+            
+            // 선언된 크기로 먼저 거절
+            if (contentLength > maxSize) {
+                throw new RuntimeException("File size limit exceeded");
+            }
+            
+            String filename = StringUtils.getFilename(originalFilename);
+            if (filename == null || filename.isBlank() || filename.contains("..")) {
+                throw new RuntimeException("Invalid filename");
+            }
+            
+            // 선언된 크기로 쿼터를 예약 (크기를 모르면 저장 후 실제 크기로 확인)
+            try (QuotaService.Reservation reservation = quotaService.reserve(owner, Math.max(contentLength, 0), 1)) {
+                // 크기를 모르면 (chunked) 남은 쿼터보다 많이 기록하지 않도록 제한을 낮춤
+                long limit = contentLength < 0 ? Math.min(maxSize, reservation.headroom()) : maxSize;
+                
+                // 크기 제한은 기록 중에 확인되며, 넘으면 부분 파일은 제거됨
+                StoredBlob blob;
+                try {
+                    blob = blobStore.store(in, limit);
+                } catch (RuntimeException e) {
+                    if (limit < maxSize && "File size limit exceeded".equals(e.getMessage())) {
+                        throw new RuntimeException(QuotaService.QUOTA_EXCEEDED);
+                    }
+                    throw e;
+                }
+                if (contentLength >= 0 && blob.size() != contentLength) {
+                    blobStore.release(blob.hash());
+                    throw new RuntimeException("Incomplete upload");
+                }
+                resizeReservation(reservation, blob);
+                
+                operation.phase(StorageMetrics.PHASE_DISK);
+                
+                FileUploadResponse response = saveMetadata(filename, blob, contentType, owner);
+                reservation.commit();
+                operation.phase(StorageMetrics.PHASE_METADATA);
+                return operation.succeed(response);
+            }
+        }
+    }
+    
+    /**
+     * 이미 완성된 파일(예: multipart 업로드 스테이징 파일)을 복사 없이 저장소로 옮겨 등록
+     * 쿼터는 호출자가 업로드를 시작할 때부터 잡아 둔 예약을 실제 크기로 맞춰 확정한다
+     * (실패하면 예약은 그대로 남으므로 호출자가 다시 시도하거나 닫는다)
+     */
+    public FileUploadResponse storeAssembledFile(Path source, String originalFilename, String contentType,
+                                                 long size, User owner, QuotaService.Reservation reservation)
+            throws IOException {
+        reservation.resize(size);
+        StoredBlob blob = blobStore.storeFile(source);
+        if (blob.size() != size) {
+            blobStore.release(blob.hash());
+            throw new RuntimeException("Incomplete upload");
         }
         
-        // 파일명 생성
-        String originalFilename = file.getOriginalFilename();
-        String storedFilename = UUID.randomUUID().toString() + "_" + originalFilename;
-        String downloadLink = UUID.randomUUID().toString();
+        FileUploadResponse response = saveMetadata(originalFilename, blob, contentType, owner);
+        reservation.commit();
+        return response;
+    }
+    
+    /**
+     * 여러 파일을 한 요청으로 업로드
+     * 내용은 파일마다 저장하고, 메타데이터와 변경 기록은 하나의 트랜잭션에서 JDBC 배치로 기록한다
+     * 일부 파일이 실패해도 나머지는 저장되며 결과는 파일별로 돌려준다
+     */
+    public BatchResponse<BatchUploadItem> uploadFiles(List<MultipartFile> files, User owner) throws IOException {
+        if (files.size() > batchMaxItems) {
+            throw new RuntimeException("Too many files: max " + batchMaxItems);
+        }
         
-        // 파일 저장
-        Path filePath = uploadPath.resolve(storedFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        FileMetadata[] stored = new FileMetadata[files.size()];
+        String[] errors = new String[files.size()];
+        // 파일마다 따로 예약하므로 한도를 넘는 파일만 실패함 (확정되지 않은 예약은 마지막에 되돌림)
+        QuotaService.Reservation[] reservations = new QuotaService.Reservation[files.size()];
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                try {
+                    reservations[i] = quotaService.reserve(owner, file.getSize(), 1);
+                    StoredBlob blob = blobStore.store(file.getInputStream(), Long.MAX_VALUE);
+                    resizeReservation(reservations[i], blob);
+                    stored[i] = newMetadata(file.getOriginalFilename(), blob, file.getContentType(), owner);
+                } catch (IOException | RuntimeException e) {
+                    errors[i] = e.getMessage();
+                }
+            }
+            
+            List<FileMetadata> batch = Arrays.stream(stored).filter(Objects::nonNull).toList();
+            if (!batch.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        fileMetadataRepository.saveAll(batch);
+                        changeFeedService.recordAll(FileChangeType.UPLOADED, batch);
+                    });
+                    for (int i = 0; i < stored.length; i++) {
+                        if (stored[i] != null) {
+                            reservations[i].commit();
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // 메타데이터가 하나도 기록되지 않았으므로 방금 추가한 참조를 모두 되돌림
+                    for (int i = 0; i < stored.length; i++) {
+                        if (stored[i] != null) {
+                            blobStore.release(stored[i].getBlobHash());
+                            stored[i] = null;
+                            errors[i] = e.getMessage();
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (QuotaService.Reservation reservation : reservations) {
+                if (reservation != null) {
+                    reservation.close();
+                }
+            }
+        }
         
-        // 메타데이터 저장
+        List<BatchUploadItem> items = new ArrayList<>(files.size());
+        int succeeded = 0;
+        for (int i = 0; i < files.size(); i++) {
+            String originalFilename = files.get(i).getOriginalFilename();
+            if (stored[i] != null) {
+                items.add(new BatchUploadItem(originalFilename, toUploadResponse(stored[i]), null));
+                succeeded++;
+            } else {
+                items.add(new BatchUploadItem(originalFilename, null, errors[i]));
+            }
+        }
+        return new BatchResponse<>(items, succeeded, files.size() - succeeded);
+    }
+    
+    /**
+     * 예약을 실제 저장된 크기로 맞춤 (선언보다 커서 한도를 넘으면 방금 추가한 참조를 되돌림)
+     */
+    private void resizeReservation(QuotaService.Reservation reservation, StoredBlob blob) throws IOException {
+        try {
+            reservation.resize(blob.size());
+        } catch (RuntimeException e) {
+            blobStore.release(blob.hash());
+            throw e;
+        }
+    }
+    
+    private FileUploadResponse saveMetadata(String originalFilename, StoredBlob blob,
+                                            String contentType, User owner) throws IOException {
+        FileMetadata metadata = newMetadata(originalFilename, blob, contentType, owner);
+        
+        try {
+            metadata = metadataWriter.write(metadata);
+        } catch (RuntimeException e) {
+            // 메타데이터 저장에 실패하면 방금 추가한 참조를 되돌림
+            blobStore.release(blob.hash());
+            throw e;
+        }
+        
+        return toUploadResponse(metadata);
+    }
+    
+    private FileMetadata newMetadata(String originalFilename, StoredBlob blob, String contentType, User owner) {
         FileMetadata metadata = new FileMetadata();
         metadata.setOriginalFilename(originalFilename);
-        metadata.setStoredFilename(storedFilename);
-        metadata.setContentType(file.getContentType());
-        metadata.setFileSize(file.getSize());
-        metadata.setDownloadLink(downloadLink);
+        metadata.setBlobHash(blob.hash());
+        metadata.setContentType(contentType);
+        metadata.setFileSize(blob.size());
+        metadata.setDownloadLink(UUID.randomUUID().toString());
         metadata.setOwner(owner);
-        
-        metadata = fileMetadataRepository.save(metadata);
-        
+        return metadata;
+    }
+    
+    private FileUploadResponse toUploadResponse(FileMetadata metadata) {
         return new FileUploadResponse(
             metadata.getId(),
             metadata.getOriginalFilename(),
@@ -68,11 +303,15 @@ public class FileStorageService {
         );
     }
     
-    public List<FileMetadataDto> getUserFiles(User user) {
-        return fileMetadataRepository.findByOwner(user)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * 사용자 파일 목록 한 페이지 (keyset 페이지네이션, DTO projection)
+     */
+    public FileListPage getUserFiles(User user, FileListQuery query) {
+        try (StorageMetrics.Operation operation = storageMetrics.start(StorageMetrics.LIST)) {
+            FileListPage page = fileMetadataRepository.findPageByOwner(user.getId(), query);
+            operation.phase(StorageMetrics.PHASE_METADATA);
+            return operation.succeed(page);
+        }
     }
     
     public Optional<FileMetadataDto> getFileMetadata(Long fileId, User user) {
@@ -92,6 +331,8 @@ public class FileStorageService {
                 file.setAccessPassword(null);
             }
             fileMetadataRepository.save(file);
+            invalidateDownload(file.getDownloadLink());
+            changeFeedService.record(FileChangeType.PERMISSION_CHANGED, file);
             return true;
         }
         
@@ -99,58 +340,224 @@ public class FileStorageService {
     }
     
     public boolean deleteFile(Long fileId, User user) throws IOException {
-        Optional<FileMetadata> fileOpt = fileMetadataRepository.findByIdAndOwner(fileId, user);
-        
-        if (fileOpt.isPresent()) {
-            FileMetadata file = fileOpt.get();
+        try (StorageMetrics.Operation operation = storageMetrics.start(StorageMetrics.DELETE)) {
+            // 행을 잠그고 지운 요청만 참조/쿼터/변경 기록을 처리
+            // (같은 파일을 동시에 지우는 요청이 공유 Blob의 다른 소유자 참조까지 내리지 않도록)
+            Optional<FileMetadata> fileOpt = transactionTemplate.execute(status -> {
+                List<FileMetadata> found = fileMetadataRepository.findForDeleteByOwnerAndIdIn(user, List.of(fileId));
+                if (found.isEmpty() || fileMetadataRepository.deleteByOwnerAndIdIn(user, List.of(fileId)) == 0) {
+                    return Optional.<FileMetadata>empty();
+                }
+                changeFeedService.record(FileChangeType.DELETED, found.get(0));
+                return Optional.of(found.get(0));
+            });
             
-            // 실제 파일 삭제
-            Path filePath = Paths.get(uploadDir).resolve(file.getStoredFilename());
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
+            if (fileOpt.isPresent()) {
+                FileMetadata file = fileOpt.get();
+                invalidateDownload(file.getDownloadLink());
+                quotaService.release(user, file.getFileSize(), 1);
+                operation.phase(StorageMetrics.PHASE_METADATA);
+                
+                // Blob 참조 해제 (마지막 참조였을 때만 실제 파일 삭제)
+                blobStore.release(file.getBlobHash());
+                operation.phase(StorageMetrics.PHASE_DISK);
+                return operation.succeed(true);
             }
             
-            // 메타데이터 삭제
-            fileMetadataRepository.delete(file);
-            return true;
+            operation.phase(StorageMetrics.PHASE_METADATA);
+            return operation.succeed(false);
         }
-        
-        return false;
     }
     
-    public Resource downloadFile(String downloadLink, String password) throws IOException {
-        Optional<FileMetadata> fileOpt = fileMetadataRepository.findByDownloadLink(downloadLink);
+    /**
+     * 여러 파일을 한 번에 삭제
+     * 소유자 범위의 조회/삭제 쿼리 하나씩과 변경 기록을 한 트랜잭션에서 처리하고,
+     * 커밋 후 Blob 참조는 해시별로 모아 한 번씩 해제한다
+     */
+    public BatchResponse<BatchDeleteItem> deleteFiles(List<Long> fileIds, User user) throws IOException {
+        List<Long> ids = fileIds != null ? fileIds.stream().filter(Objects::nonNull).distinct().toList() : List.of();
+        if (ids.isEmpty()) {
+            throw new RuntimeException("No files requested");
+        }
+        if (ids.size() > batchMaxItems) {
+            throw new RuntimeException("Too many files: max " + batchMaxItems);
+        }
         
-        if (fileOpt.isEmpty()) {
-            throw new RuntimeException("File not found");
+        List<FileMetadata> deleted = transactionTemplate.execute(status -> {
+            List<FileMetadata> found = fileMetadataRepository.findForDeleteByOwnerAndIdIn(user, ids);
+            if (!found.isEmpty()) {
+                fileMetadataRepository.deleteByOwnerAndIdIn(user, found.stream().map(FileMetadata::getId).toList());
+                changeFeedService.recordAll(FileChangeType.DELETED, found);
+            }
+            return found;
+        });
+        
+        Map<String, Long> references = new HashMap<>();
+        Set<Long> deletedIds = new HashSet<>();
+        long deletedBytes = 0;
+        for (FileMetadata file : deleted) {
+            invalidateDownload(file.getDownloadLink());
+            references.merge(file.getBlobHash(), 1L, Long::sum);
+            deletedIds.add(file.getId());
+            deletedBytes += file.getFileSize();
+        }
+        quotaService.release(user, deletedBytes, deleted.size());
+        
+        // Blob 참조 해제 (마지막 참조였을 때만 실제 파일 삭제)
+        for (Map.Entry<String, Long> entry : references.entrySet()) {
+            blobStore.release(entry.getKey(), entry.getValue());
         }
         
-        FileMetadata file = fileOpt.get();
+        List<BatchDeleteItem> items = ids.stream()
+                .map(id -> deletedIds.contains(id)
+                        ? new BatchDeleteItem(id, true, null)
+                        : new BatchDeleteItem(id, false, "File not found"))
+                .toList();
+        return new BatchResponse<>(items, deletedIds.size(), ids.size() - deletedIds.size());
+    }
+    
+    /**
+     * 다운로드 링크를 해석하고 권한을 확인 (캐시에 없을 때만 메타데이터 조회 1회)
+     */
+    public ResolvedDownload downloadFile(String downloadLink, String password) throws IOException {
+        ResolvedDownload download = downloadCache.get(downloadLink);
+        if (download == null) {
+            download = downloadResolutions.execute(downloadLink, () -> resolveDownload(downloadLink));
+        }
         
         // 권한 확인
-        if (file.getPermission() == FilePermission.PRIVATE) {
+        if (download.permission() == FilePermission.PRIVATE) {
             throw new RuntimeException("Access denied");
         }
         
-        if (file.getPermission() == FilePermission.PASSWORD_PROTECTED) {
-            if (password == null || !password.equals(file.getAccessPassword())) {
+        if (download.permission() == FilePermission.PASSWORD_PROTECTED) {
+            if (password == null || !password.equals(download.accessPassword())) {
                 throw new RuntimeException("Invalid password");
             }
         }
         
-        Path filePath = Paths.get(uploadDir).resolve(file.getStoredFilename());
-        if (!Files.exists(filePath)) {
-            throw new RuntimeException("File not found on disk");
+        return download;
+    }
+    
+    /**
+     * 묶음 다운로드 대상을 요청 순서대로 해석 (하나라도 없거나 권한이 없으면 전송 전에 전체 실패)
+     * 파일 id는 소유자 것만, 메타데이터와 Blob은 각각 한 번의 조회로 가져온다
+     */
+    public List<ResolvedDownload> resolveArchive(User user, List<Long> fileIds, List<String> downloadLinks) throws IOException {
+        List<Long> ids = fileIds != null ? fileIds : List.of();
+        List<String> links = downloadLinks != null ? downloadLinks : List.of();
+        if (ids.isEmpty() && links.isEmpty()) {
+            throw new RuntimeException("No files requested");
+        }
+        if (ids.size() + links.size() > archiveMaxEntries) {
+            throw new RuntimeException("Too many files: max " + archiveMaxEntries);
         }
         
-        return new UrlResource(filePath.toUri());
+        List<ResolvedDownload> entries = new ArrayList<>(ids.size() + links.size());
+        if (!ids.isEmpty()) {
+            if (user == null) {
+                throw new RuntimeException("User not found");
+            }
+            Map<Long, FileMetadata> files = new HashMap<>();
+            for (FileMetadata file : fileMetadataRepository.findByOwnerAndIdIn(user, ids)) {
+                files.put(file.getId(), file);
+            }
+            Map<String, Blob> blobs = blobStore.getAll(files.values().stream().map(FileMetadata::getBlobHash).toList());
+            
+            for (Long id : ids) {
+                FileMetadata file = files.get(id);
+                if (file == null) {
+                    throw new RuntimeException("File not found: " + id);
+                }
+                Blob blob = blobs.get(file.getBlobHash());
+                if (blob == null) {
+                    throw new RuntimeException("File not found on disk: " + id);
+                }
+                entries.add(ResolvedDownload.of(file, blob, blobStore.locate(blob)));
+            }
+        }
+        for (String link : links) {
+            entries.add(downloadFile(link, null));
+        }
+        return entries;
+    }
+    
+    /**
+     * 캐시 대상 크기의 객체면 메모리(off-heap)에 올린 내용을 반환, 아니면 null
+     * 압축 저장된 객체는 압축본 그대로 캐시된다
+     * 캐시에 없으면 디스크에서 읽어 채운다
+     */
+    public ByteBuffer getHotContent(ResolvedDownload download) throws IOException {
+        BlobLocation location = download.location();
+        if (!hotObjectCache.admits(location.length())) {
+            return null;
+        }
+        
+        String downloadLink = download.downloadLink();
+        ByteBuffer cached = hotObjectCache.get(downloadLink);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // 동시에 들어온 요청 중 하나만 디스크에서 읽고 나머지는 같은 버퍼를 공유
+        ByteBuffer content = contentLoads.execute(downloadLink, () -> {
+            long generation = hotObjectCache.generation();
+            ByteBuffer loaded = HotObjectCache.read(location);
+            hotObjectCache.put(downloadLink, loaded, generation);
+            return loaded;
+        });
+        return content.duplicate();
     }
     
-    public Optional<FileMetadata> getFileByDownloadLink(String downloadLink) {
-        return fileMetadataRepository.findByDownloadLink(downloadLink);
+    /**
+     * 요청 합치기 통계 (작업별 직접 수행 수 / 공유받은 수)
+     */
+    public Map<String, Map<String, Long>> getCoalescingStats() {
+        return Map.of(
+            "downloadResolutions", Map.of("executions", downloadResolutions.executions(), "coalesced", downloadResolutions.coalesced()),
+            "contentLoads", Map.of("executions", contentLoads.executions(), "coalesced", contentLoads.coalesced()),
+            "downloadCache", Map.of("hits", downloadCache.hits(), "misses", downloadCache.misses(), "entries", (long) downloadCache.size())
+        );
+    }
+    
+    /**
+     * 링크의 캐시와 진행 중인 조회를 모두 버림
+     * 진행 중인 조회를 떼어 내지 않으면 변경 뒤에 합류한 요청이 바뀌기 전의 권한을 공유받는다
+     */
+    private void invalidateDownload(String downloadLink) {
+        downloadCache.invalidate(downloadLink);
+        downloadResolutions.forget(downloadLink);
+        hotObjectCache.invalidate(downloadLink);
+        contentLoads.forget(downloadLink);
+    }
+    
+    /**
+     * 메타데이터와 저장 위치를 한 쿼리로 조회해 캐시에 적재 (없는 링크는 캐시하지 않음)
+     */
+    private ResolvedDownload resolveDownload(String downloadLink) {
+        long generation = downloadCache.generation();
+        List<Object[]> rows = fileMetadataRepository.findWithBlobByDownloadLink(downloadLink);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("File not found");
+        }
+        FileMetadata file = (FileMetadata) rows.get(0)[0];
+        Blob blob = (Blob) rows.get(0)[1];
+        if (blob == null) {
+            throw new RuntimeException("File not found on disk");
+        }
+        
+        BlobLocation location = blobStore.locate(blob);
+        if (!Files.exists(location.path())) {
+            throw new RuntimeException("File not found on disk");
+        }
+        
+        ResolvedDownload download = ResolvedDownload.of(file, blob, location);
+        downloadCache.put(downloadLink, download, System.currentTimeMillis() + downloadCacheTtl.toMillis(), generation);
+        return download;
     }
     
-    private FileMetadataDto convertToDto(FileMetadata file) {
+    // 벤치마크(src/jmh)에서 직접 측정하므로 package-private
+    FileMetadataDto convertToDto(FileMetadata file) {
         FileMetadataDto dto = new FileMetadataDto();
         dto.setId(file.getId());
         dto.setOriginalFilename(file.getOriginalFilename());
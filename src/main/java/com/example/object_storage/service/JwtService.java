@@ -1,9 +1,18 @@
 package com.example.object_storage.service;
 
+import com.example.object_storage.entity.User;
+import com.example.object_storage.util.ExpiringCache;
 import com.example.object_storage.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Optional;
+
 /**
  * JWT 관련 비즈니스 로직을 처리하는 서비스 클래스
  * JwtUtil을 감싸는 서비스 레이어
@@ -13,6 +22,54 @@ import org.springframework.stereotype.Service;
 public class JwtService {
     
     private final JwtUtil jwtUtil;
+    private final UserService userService;
+    
+    // 검증을 마친 토큰 -> 사용자 (토큰 만료 시각까지만 유지)
+    private ExpiringCache<String, User> principalCache;
+    
+    @Value("${jwt.principal-cache.max-entries:10000}")
+    private int principalCacheMaxEntries;
+    
+    // 사용자 정보 변경이 반영되기까지의 최대 지연
+    @Value("${jwt.principal-cache.ttl:PT5M}")
+    private Duration principalCacheTtl;
+    
+    @PostConstruct
+    public void init() {
+        principalCache = new ExpiringCache<>(principalCacheMaxEntries);
+    }
+    
+    /**
+     * 토큰을 검증하고 해당 사용자 반환
+     * 같은 토큰은 캐시에서 바로 꺼내므로 서명 검증과 사용자 조회는 토큰당 한 번만 일어난다
+     * 
+     * @param token JWT 토큰
+     * @return 유효한 토큰이면 사용자, 아니면 empty
+     */
+    public Optional<User> authenticate(String token) {
+        User cached = principalCache.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        long generation = principalCache.generation();
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        
+        Optional<User> user = userService.findByUsername(claims.getSubject()).map(JwtService::principalOf);
+        user.ifPresent(principal -> {
+            long expiresAt = System.currentTimeMillis() + principalCacheTtl.toMillis();
+            if (claims.getExpiration() != null) {
+                expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+            }
+            principalCache.put(token, principal, expiresAt, generation);
+        });
+        return user;
+    }
     
     /**
      * 사용자명으로 JWT 토큰 생성
@@ -76,4 +133,18 @@ public class JwtService {
             return true;
         }
     }
-}
+    
+    /**
+     * 요청 간에 공유해도 안전한 사용자 사본 (비밀번호 해시와 지연 로딩 컬렉션 제외)
+     */
+    private static User principalOf(User user) {
+        User principal = new User();
+        principal.setId(user.getId());
+        principal.setUsername(user.getUsername());
+        principal.setEmail(user.getEmail());
+        principal.setCreatedAt(user.getCreatedAt());
+        principal.setQuotaBytes(user.getQuotaBytes());
+        principal.setQuotaObjects(user.getQuotaObjects());
+        return principal;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.entity.FileChangeType;
+import com.example.object_storage.entity.FileMetadata;
+import com.example.object_storage.repository.FileMetadataRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 업로드 메타데이터 기록기
+ *
+ * write-behind 모드에서는 요청 스레드가 제한된 큐에 메타데이터를 넣고, 백그라운드 writer가 그동안 쌓인 것을
+ * 한 트랜잭션(JDBC 배치)으로 기록한다 (group commit)
+ * 요청 스레드는 자기 행이 커밋될 때까지 기다린 뒤 응답하므로 내구성과 업로더의 read-your-writes는 그대로 유지되고,
+ * 동시 업로드가 많을수록 트랜잭션/왕복 수가 줄어든다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetadataWriter {
+    
+    // 종료 플래그를 확인하는 간격
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    
+    private final FileMetadataRepository fileMetadataRepository;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadFactory backgroundThreadFactory;
+    
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    
+    private BlockingQueue<PendingWrite> queue;
+    private Thread writer;
+    private volatile boolean running;
+    
+    @Value("${file.metadata.write-behind.enabled:false}")
+    private boolean writeBehind;
+    
+    // 큐가 가득 차면 요청 스레드가 자리가 날 때까지 기다림 (backpressure)
+    @Value("${file.metadata.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${file.metadata.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+    
+    @PostConstruct
+    public void init() {
+        if (!writeBehind) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = backgroundThreadFactory.newThread(this::run);
+        writer.start();
+    }
+    
+    /**
+     * 남은 요청을 모두 기록한 뒤 종료
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // 기록 도중 인터럽트로 JDBC 작업이 끊기지 않도록 플래그만 내리고 writer가 큐를 비울 때까지 기다림
+        running = false;
+        writer.join();
+    }
+    
+    /**
+     * 메타데이터를 저장하고 UPLOADED 변경을 기록 (커밋된 뒤 반환)
+     */
+    public FileMetadata write(FileMetadata metadata) {
+        if (!writeBehind) {
+            // 파일과 변경 기록은 한 트랜잭션으로 (둘 사이에서 죽어도 변경 피드에 빠진 파일이 남지 않게)
+            return transactionTemplate.execute(status -> {
+                FileMetadata saved = fileMetadataRepository.save(metadata);
+                changeFeedService.record(FileChangeType.UPLOADED, saved);
+                return saved;
+            });
+        }
+        
+        PendingWrite pending = new PendingWrite(metadata, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+            return pending.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving metadata");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+    
+    public WriterStats stats() {
+        return new WriterStats(writeBehind, queue != null ? queue.size() : 0, batches.sum(), rows.sum());
+    }
+    
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            PendingWrite first;
+            try {
+                first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            
+            // 첫 요청 이후 직전 커밋 동안 쌓인 요청을 함께 가져감 (인위적인 지연 없음)
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+    }
+    
+    private void flush(List<PendingWrite> batch) {
+        List<FileMetadata> files = batch.stream().map(PendingWrite::metadata).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                fileMetadataRepository.saveAll(files);
+                changeFeedService.recordAll(FileChangeType.UPLOADED, files);
+            });
+            batches.increment();
+            rows.add(files.size());
+            batch.forEach(pending -> pending.done().complete(pending.metadata()));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).done().completeExceptionally(e);
+                return;
+            }
+            // 한 행의 실패가 같은 묶음의 다른 업로드를 실패시키지 않도록 하나씩 다시 기록
+            log.warn("Metadata batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingWrite pending : batch) {
+                pending.metadata().setId(null);
+                flush(List.of(pending));
+            }
+        }
+    }
+    
+    /**
+     * 기록을 기다리는 메타데이터와 완료 신호
+     */
+    private record PendingWrite(FileMetadata metadata, CompletableFuture<FileMetadata> done) {
+    }
+    
+    /**
+     * write-behind 현황 (rows / batches가 평균 묶음 크기)
+     */
+    public record WriterStats(boolean writeBehind, int queued, long batches, long rows) {
+    }
+}
\ No newline at end of file
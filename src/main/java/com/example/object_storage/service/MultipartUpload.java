@@ -0,0 +1,84 @@
+package com.example.object_storage.service;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 진행 중인 multipart 업로드 세션
+ * 파트는 (partNumber - 1) * partSize 위치에 스테이징 파일로 직접 기록된다
+ */
+@Getter
+public class MultipartUpload {
+    
+    private final String uploadId;
+    private final Long ownerId;
+    private final String originalFilename;
+    private final String contentType;
+    private final long partSize;
+    private final long totalSize;
+    private final Path stagingFile;
+    private final Instant createdAt = Instant.now();
+    
+    // 완료된 파트 번호 -> 크기
+    private final Map<Integer, Long> parts = new ConcurrentHashMap<>();
+    
+    // 파트 업로드끼리는 동시에, 완료/취소는 단독으로 실행
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // 시작할 때 잡은 쿼터 예약 (전체 크기를 모르면 파트가 올라올 때마다 늘림), 완료 시 확정되고 취소/만료 시 되돌림
+    private final QuotaService.Reservation reservation;
+    
+    // 지금까지 예약한 바이트 수 (파트 업로드끼리 동시에 늘리므로 이 객체의 모니터로 보호)
+    private long reservedBytes;
+    
+    private volatile Instant lastActivity = Instant.now();
+    private volatile boolean closed;
+    
+    public MultipartUpload(String uploadId, Long ownerId, String originalFilename, String contentType,
+                           long partSize, long totalSize, Path stagingFile, QuotaService.Reservation reservation) {
+        this.uploadId = uploadId;
+        this.ownerId = ownerId;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.partSize = partSize;
+        this.totalSize = totalSize;
+        this.stagingFile = stagingFile;
+        this.reservation = reservation;
+        this.reservedBytes = Math.max(totalSize, 0);
+    }
+    
+    /**
+     * 스테이징 파일의 end 위치까지 쿼터를 예약 (이미 예약한 범위면 그대로, 한도를 넘으면 예외)
+     */
+    synchronized void reserveThrough(long end) {
+        if (end > reservedBytes) {
+            resizeReservation(end);
+        }
+    }
+    
+    /**
+     * 예약을 정확히 size로 맞춤 (완료 시 실제 크기로)
+     */
+    synchronized void resizeReservation(long size) {
+        reservation.resize(size);
+        reservedBytes = size;
+    }
+    
+    void touch() {
+        lastActivity = Instant.now();
+    }
+    
+    /**
+     * 세션을 닫고 확정되지 않은 예약을 되돌림 (완료 후에는 이미 확정되어 아무것도 하지 않음)
+     */
+    synchronized void close() {
+        closed = true;
+        reservation.close();
+    }
+}
\ No newline at end of file
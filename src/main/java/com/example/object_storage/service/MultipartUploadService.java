@@ -0,0 +1,320 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.dto.MultipartInitiateRequest;
+import com.example.object_storage.dto.MultipartUploadDto;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.storage.TransferEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * S3 방식의 multipart 업로드 (initiate / upload-part / complete / abort)
+ * 각 파트는 별도 연결에서 동시에 업로드되며 스테이징 파일의 해당 위치에 직접 기록되므로
+ * 완료 시 파트를 이어 붙이는 복사가 없다
+ * 쿼터는 시작할 때 예약해 완료/취소/만료까지 들고 있으므로, 한도에 닿은 사용자가 스테이징 파일로 디스크를 채우지 못한다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MultipartUploadService {
+    
+    private static final String STAGING_DIR = ".multipart";
+    private static final int MAX_PARTS = 10000;
+    
+    private final FileStorageService fileStorageService;
+    private final QuotaService quotaService;
+    private final TransferEngine transferEngine;
+    
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+    
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+    
+    @Value("${file.upload.stream-max-size:5GB}")
+    private DataSize maxObjectSize;
+    
+    @Value("${file.upload.multipart.min-part-size:64KB}")
+    private DataSize minPartSize;
+    
+    @Value("${file.upload.multipart.max-part-size:512MB}")
+    private DataSize maxPartSize;
+    
+    // 이 시간 동안 활동이 없는 업로드는 백그라운드에서 취소
+    @Value("${file.upload.multipart.expiry:PT24H}")
+    private Duration expiry;
+    
+    public MultipartUploadDto initiate(MultipartInitiateRequest request, User owner) throws IOException {
+        String filename = StringUtils.getFilename(request.getFilename());
+        if (filename == null || filename.isBlank() || filename.contains("..")) {
+            throw new RuntimeException("Invalid filename");
+        }
+        
+        long partSize = request.getPartSize() != null ? request.getPartSize() : maxPartSize.toBytes() / 8;
+        if (partSize < minPartSize.toBytes() || partSize > maxPartSize.toBytes()) {
+            throw new RuntimeException("Invalid part size");
+        }
+        
+        long totalSize = request.getTotalSize() != null ? request.getTotalSize() : -1;
+        if (totalSize > maxObjectSize.toBytes()) {
+            throw new RuntimeException("File size limit exceeded");
+        }
+        if (totalSize >= 0 && (totalSize + partSize - 1) / partSize > MAX_PARTS) {
+            throw new RuntimeException("Too many parts");
+        }
+        
+        // 스테이징 파일을 만들기 전에 쿼터를 예약 (전체 크기를 모르면 객체 하나만 잡고 파트마다 늘림)
+        QuotaService.Reservation reservation = quotaService.reserve(owner, Math.max(totalSize, 0), 1);
+        
+        String uploadId = UUID.randomUUID().toString();
+        Path stagingFile = stagingPath().resolve(uploadId);
+        
+        // 전체 크기를 알면 미리 할당해 두고 파트를 제자리에 기록
+        try (FileChannel channel = FileChannel.open(stagingFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            if (totalSize > 0) {
+                channel.write(ByteBuffer.allocate(1), totalSize - 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            reservation.close();
+            Files.deleteIfExists(stagingFile);
+            throw e;
+        }
+        
+        String contentType = StringUtils.hasText(request.getContentType())
+                ? request.getContentType()
+                : "application/octet-stream";
+        MultipartUpload upload = new MultipartUpload(uploadId, owner.getId(), filename, contentType,
+                partSize, totalSize, stagingFile, reservation);
+        uploads.put(uploadId, upload);
+        
+        return toDto(upload);
+    }
+    
+    /**
+     * 파트 하나를 스테이징 파일의 제 위치에 기록
+     * 같은 업로드의 다른 파트와 동시에 실행될 수 있다
+     */
+    public MultipartUploadDto uploadPart(String uploadId, int partNumber, InputStream in, User owner) throws IOException {
+        MultipartUpload upload = getUpload(uploadId, owner);
+        if (partNumber < 1 || partNumber > MAX_PARTS) {
+            throw new RuntimeException("Invalid part number");
+        }
+        
+        long position = (partNumber - 1L) * upload.getPartSize();
+        long totalSize = upload.getTotalSize();
+        if (totalSize >= 0 && position >= Math.max(totalSize, 1)) {
+            throw new RuntimeException("Invalid part number");
+        }
+        if (position >= maxObjectSize.toBytes()) {
+            throw new RuntimeException("File size limit exceeded");
+        }
+        
+        upload.getLock().readLock().lock();
+        try {
+            if (upload.isClosed()) {
+                throw new RuntimeException("Upload not found");
+            }
+            upload.touch();
+            
+            // 전체 크기를 모르면 이 파트가 끝날 수 있는 위치까지 본문을 읽기 전에 예약을 늘림
+            if (totalSize < 0) {
+                upload.reserveThrough(Math.min(position + upload.getPartSize(), maxObjectSize.toBytes()));
+            }
+            
+            long written = writePart(upload, position, in);
+            upload.getParts().put(partNumber, written);
+            upload.touch();
+        } finally {
+            upload.getLock().readLock().unlock();
+        }
+        
+        return toDto(upload);
+    }
+    
+    public MultipartUploadDto getStatus(String uploadId, User owner) {
+        return toDto(getUpload(uploadId, owner));
+    }
+    
+    /**
+     * 파트가 빠짐없이 올라왔는지 확인한 뒤 스테이징 파일을 그대로 최종 파일로 등록
+     */
+    public FileUploadResponse complete(String uploadId, User owner) throws IOException {
+        MultipartUpload upload = getUpload(uploadId, owner);
+        
+        upload.getLock().writeLock().lock();
+        try {
+            if (upload.isClosed()) {
+                throw new RuntimeException("Upload not found");
+            }
+            
+            long size = validateParts(upload);
+            upload.resizeReservation(size);
+            
+            // 미리 할당한 크기와 다를 수 있으므로 실제 크기로 맞춤
+            try (FileChannel channel = FileChannel.open(upload.getStagingFile(), StandardOpenOption.WRITE)) {
+                channel.truncate(size);
+                channel.force(true);
+            }
+            
+            FileUploadResponse response = fileStorageService.storeAssembledFile(upload.getStagingFile(),
+                    upload.getOriginalFilename(), upload.getContentType(), size, owner, upload.getReservation());
+            
+            upload.close();
+            uploads.remove(uploadId);
+            return response;
+        } finally {
+            upload.getLock().writeLock().unlock();
+        }
+    }
+    
+    public void abort(String uploadId, User owner) throws IOException {
+        MultipartUpload upload = getUpload(uploadId, owner);
+        discard(upload);
+    }
+    
+    /**
+     * 오래된 업로드와 재시작 후 남은 스테이징 파일 정리
+     */
+    @Scheduled(fixedDelayString = "${file.upload.multipart.cleanup-interval:PT10M}")
+    public void cleanupExpiredUploads() {
+        Instant threshold = Instant.now().minus(expiry);
+        
+        for (MultipartUpload upload : uploads.values()) {
+            if (upload.getLastActivity().isBefore(threshold)) {
+                try {
+                    discard(upload);
+                    log.info("Expired multipart upload removed: {}", upload.getUploadId());
+                } catch (IOException e) {
+                    log.warn("Could not remove multipart upload {}: {}", upload.getUploadId(), e.getMessage());
+                }
+            }
+        }
+        
+        Path staging = Paths.get(uploadDir).resolve(STAGING_DIR);
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(staging)) {
+            files.filter(file -> !uploads.containsKey(file.getFileName().toString()))
+                 .filter(file -> isOlderThan(file, threshold))
+                 .forEach(file -> {
+                     try {
+                         Files.deleteIfExists(file);
+                     } catch (IOException e) {
+                         log.warn("Could not remove orphaned staging file {}: {}", file, e.getMessage());
+                     }
+                 });
+        } catch (IOException e) {
+            log.warn("Could not scan multipart staging directory: {}", e.getMessage());
+        }
+    }
+    
+    private long writePart(MultipartUpload upload, long position, InputStream in) throws IOException {
+        long limit = upload.getPartSize();
+        
+        // Channels.newChannel(in)은 읽기를 모니터 락 안에서 하므로 가상 스레드가 느린 클라이언트를 기다리며 고정(pin)됨
+        // 전송 엔진은 스트림에서 직접 읽어 락 없이 대기
+        try (FileChannel channel = FileChannel.open(upload.getStagingFile(), StandardOpenOption.WRITE)) {
+            long written = transferEngine.copy(in, channel, position, limit, null, null);
+            if (written > limit) {
+                throw new RuntimeException("Part exceeds part size");
+            }
+            return written;
+        }
+    }
+    
+    /**
+     * 마지막 파트를 제외한 모든 파트가 partSize인지 확인하고 전체 크기를 반환
+     */
+    private long validateParts(MultipartUpload upload) {
+        Map<Integer, Long> parts = new TreeMap<>(upload.getParts());
+        if (parts.isEmpty()) {
+            throw new RuntimeException("No parts uploaded");
+        }
+        
+        int lastPart = parts.size();
+        long size = 0;
+        for (int partNumber = 1; partNumber <= lastPart; partNumber++) {
+            Long partLength = parts.get(partNumber);
+            if (partLength == null) {
+                throw new RuntimeException("Missing part " + partNumber);
+            }
+            if (partNumber < lastPart && partLength != upload.getPartSize()) {
+                throw new RuntimeException("Invalid size for part " + partNumber);
+            }
+            size += partLength;
+        }
+        
+        if (upload.getTotalSize() >= 0 && size != upload.getTotalSize()) {
+            throw new RuntimeException("Incomplete upload");
+        }
+        return size;
+    }
+    
+    private void discard(MultipartUpload upload) throws IOException {
+        upload.getLock().writeLock().lock();
+        try {
+            upload.close();
+            uploads.remove(upload.getUploadId());
+            Files.deleteIfExists(upload.getStagingFile());
+        } finally {
+            upload.getLock().writeLock().unlock();
+        }
+    }
+    
+    private MultipartUpload getUpload(String uploadId, User owner) {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null || !upload.getOwnerId().equals(owner.getId())) {
+            throw new RuntimeException("Upload not found");
+        }
+        return upload;
+    }
+    
+    private Path stagingPath() throws IOException {
+        Path staging = Paths.get(uploadDir).resolve(STAGING_DIR);
+        if (!Files.exists(staging)) {
+            Files.createDirectories(staging);
+        }
+        return staging;
+    }
+    
+    private boolean isOlderThan(Path file, Instant threshold) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(threshold);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private MultipartUploadDto toDto(MultipartUpload upload) {
+        MultipartUploadDto dto = new MultipartUploadDto();
+        dto.setUploadId(upload.getUploadId());
+        dto.setOriginalFilename(upload.getOriginalFilename());
+        dto.setContentType(upload.getContentType());
+        dto.setPartSize(upload.getPartSize());
+        dto.setTotalSize(upload.getTotalSize() >= 0 ? upload.getTotalSize() : null);
+        dto.setParts(new TreeMap<>(upload.getParts()));
+        return dto;
+    }
+}
\ No newline at end of file
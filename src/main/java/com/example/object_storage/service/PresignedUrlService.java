@@ -0,0 +1,162 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.entity.FileMetadata;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.FileMetadataRepository;
+import com.example.object_storage.storage.BlobLocation;
+import com.example.object_storage.storage.BlobStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * 서명된(presigned) 다운로드 URL 발급/검증
+ * 토큰은 객체 id, 만료 시각, 허용 작업과 전송에 필요한 Blob 정보를 HMAC(HS256)으로 서명한 것이라
+ * 검증은 CPU만으로 끝나고 다운로드 경로에서 메타데이터 조회와 권한 확인을 거치지 않는다
+ *
+ * 대신 발급 후의 권한 변경/삭제는 만료 전까지 반영되지 않을 수 있으므로 만료 시간을 짧게 유지한다
+ */
+@Service
+@RequiredArgsConstructor
+public class PresignedUrlService {
+    
+    private static final String OPERATION_DOWNLOAD = "download";
+    
+    private final FileMetadataRepository fileMetadataRepository;
+    private final BlobStore blobStore;
+    
+    // 로그인 토큰과 다른 키를 사용 (한쪽 키가 노출되어도 다른 쪽 토큰은 위조할 수 없도록)
+    @Value("${file.presign.secret}")
+    private String secret;
+    
+    @Value("${file.presign.default-expiry:PT15M}")
+    private Duration defaultExpiry;
+    
+    @Value("${file.presign.max-expiry:PT24H}")
+    private Duration maxExpiry;
+    
+    private Key signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
+    /**
+     * 소유자의 파일에 대한 다운로드 토큰 발급
+     *
+     * @param expiresInSeconds 유효 시간(초), null이면 기본값
+     * @return 파일이 없거나 소유자가 아니면 empty
+     */
+    public Optional<PresignedToken> presign(Long fileId, User owner, Long expiresInSeconds) throws IOException {
+        Duration expiresIn = expiresInSeconds != null ? Duration.ofSeconds(expiresInSeconds) : defaultExpiry;
+        if (expiresIn.isNegative() || expiresIn.isZero() || expiresIn.compareTo(maxExpiry) > 0) {
+            throw new RuntimeException("Invalid expiry: must be between 1 and " + maxExpiry.toSeconds() + " seconds");
+        }
+        
+        Optional<FileMetadata> fileOpt = fileMetadataRepository.findByIdAndOwner(fileId, owner);
+        if (fileOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        FileMetadata file = fileOpt.get();
+        Blob blob = blobStore.get(file.getBlobHash());
+        
+        // 다운로드 경로가 DB 없이 응답을 만들 수 있도록 필요한 값을 모두 담음
+        BlobLocation location = blobStore.locate(blob);
+        ResolvedDownload download = ResolvedDownload.of(file, blob, location);
+        // 세그먼트 구간은 내용까지 서명해 둠 (검증 시 같은 바이트인지 확인하고, 다르면 현재 위치를 조회)
+        Long regionCrc = blob.getSegmentId() != null ? blobStore.regionChecksum(location) : null;
+        Instant expiresAt = Instant.now().plus(expiresIn);
+        String token = Jwts.builder()
+                .setSubject(String.valueOf(file.getId()))
+                .setExpiration(Date.from(expiresAt))
+                .claim("op", OPERATION_DOWNLOAD)
+                .claim("hash", blob.getHash())
+                .claim("name", download.originalFilename())
+                .claim("type", download.contentType())
+                .claim("size", download.fileSize())
+                .claim("modified", download.lastModified())
+                .claim("encoding", blob.getEncoding())
+                .claim("stored", blob.getStoredSize())
+                .claim("segment", blob.getSegmentId())
+                .claim("offset", blob.getSegmentOffset())
+                .claim("crc", regionCrc)
+                .signWith(signingKey)
+                .compact();
+        return Optional.of(new PresignedToken(token, expiresAt));
+    }
+    
+    /**
+     * 서명과 만료, 허용 작업을 확인하고 전송할 내용을 반환 (세그먼트 구간이 바뀌지 않았으면 DB 조회 없음)
+     */
+    public PresignedDownload verify(String token) throws IOException {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            throw new RuntimeException("Link expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid signature");
+        }
+        if (!OPERATION_DOWNLOAD.equals(claims.get("op", String.class))) {
+            throw new RuntimeException("Operation not allowed");
+        }
+        
+        String hash = claims.get("hash", String.class);
+        Long offset = claims.get("offset", Long.class);
+        BlobLocation location = blobStore.locate(hash, claims.get("segment", Long.class),
+                offset != null ? offset : 0, claims.get("stored", Long.class), claims.get("crc", Long.class));
+        if (!Files.exists(location.path())) {
+            throw new RuntimeException("File not found on disk");
+        }
+        
+        // 내용 주소(해시)를 캐시 키로 사용하고, 권한 확인은 서명이 대신하므로 permission은 비워 둠
+        ResolvedDownload download = new ResolvedDownload(
+            "blob:" + hash,
+            claims.get("name", String.class),
+            claims.get("type", String.class),
+            claims.get("size", Long.class),
+            null,
+            null,
+            hash,
+            claims.get("modified", Long.class),
+            claims.get("encoding", String.class),
+            null,
+            location
+        );
+        return new PresignedDownload(download, claims.getExpiration().toInstant());
+    }
+    
+    /**
+     * 발급된 토큰과 만료 시각
+     */
+    public record PresignedToken(String token, Instant expiresAt) {
+    }
+    
+    /**
+     * 검증된 토큰이 가리키는 내용과 만료 시각
+     */
+    public record PresignedDownload(ResolvedDownload download, Instant expiresAt) {
+    }
+}
\ No newline at end of file
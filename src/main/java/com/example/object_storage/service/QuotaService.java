@@ -0,0 +1,293 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.FileMetadataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 사용자별 저장 쿼터 (바이트 수, 객체 수)
+ *
+ * 사용량은 사용자마다 메모리 카운터로 유지하고(처음 접근할 때 DB에서 한 번 읽음), 업로드는 기록 전에
+ * CAS로 예약한 뒤 저장이 끝나면 확정/취소한다. 같은 사용자의 동시 업로드도 잠금 없이 각자 예약하므로
+ * 서로를 기다리지 않고, 한도는 예약 시점에 원자적으로 지켜진다
+ * 카운터는 주기적으로 DB 합계와 맞춰진다 (서버 밖에서 바뀐 행이나 실패 경로의 누락 보정)
+ * 사용량은 논리 크기(fileSize) 기준이라 중복 제거/압축과 무관하다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuotaService {
+    
+    public static final String QUOTA_EXCEEDED = "Storage quota exceeded";
+    
+    // 보정 쿼리 한 번에 담는 사용자 수
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    
+    private final FileMetadataRepository fileMetadataRepository;
+    
+    // 사용자 id -> 사용량 (ConcurrentHashMap이 키별로 분산하므로 사용자끼리는 경합하지 않음)
+    private final Map<Long, Usage> usages = new ConcurrentHashMap<>();
+    
+    @Value("${file.quota.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${file.quota.max-bytes:10GB}")
+    private DataSize defaultMaxBytes;
+    
+    @Value("${file.quota.max-objects:100000}")
+    private long defaultMaxObjects;
+    
+    /**
+     * 업로드 전에 바이트/객체 수를 예약 (한도를 넘으면 아무것도 예약하지 않고 예외)
+     *
+     * @param bytes 예상 크기, 모르면 0 (저장 후 resize로 실제 크기 반영)
+     */
+    public Reservation reserve(User owner, long bytes, long objects) {
+        if (!enabled) {
+            return new Reservation(null, 0, 0, 0);
+        }
+        Usage usage = usage(owner.getId());
+        long maxBytes = maxBytes(owner);
+        if (!tryAdd(usage.objects, objects, maxObjects(owner))) {
+            throw new RuntimeException(QUOTA_EXCEEDED);
+        }
+        if (!tryAdd(usage.bytes, bytes, maxBytes)) {
+            usage.objects.addAndGet(-objects);
+            throw new RuntimeException(QUOTA_EXCEEDED);
+        }
+        usage.pendingBytes.addAndGet(bytes);
+        usage.pendingObjects.addAndGet(objects);
+        return new Reservation(usage, maxBytes, bytes, objects);
+    }
+    
+    /**
+     * 선언된 크기만으로 한도를 넘는지 확인 (본문을 읽기 전 거절용, 예약하지 않음)
+     */
+    public boolean exceeds(User owner, long declaredBytes, long objects) {
+        if (!enabled) {
+            return false;
+        }
+        Usage usage = usage(owner.getId());
+        return usage.bytes.get() + declaredBytes > maxBytes(owner)
+                || usage.objects.get() + objects > maxObjects(owner);
+    }
+    
+    /**
+     * 삭제된 파일의 사용량 반환
+     */
+    public void release(User owner, long bytes, long objects) {
+        if (!enabled) {
+            return;
+        }
+        Usage usage = usages.get(owner.getId());
+        if (usage != null) {
+            usage.bytes.addAndGet(-bytes);
+            usage.objects.addAndGet(-objects);
+        }
+    }
+    
+    public QuotaStatus status(User owner) {
+        if (!enabled) {
+            return new QuotaStatus(false, 0, 0, -1, -1);
+        }
+        Usage usage = usage(owner.getId());
+        return new QuotaStatus(true, usage.bytes.get(), usage.objects.get(), maxBytes(owner), maxObjects(owner));
+    }
+    
+    /**
+     * 카운터를 DB 합계에 맞춤
+     * 진행 중인 예약은 아직 DB에 없으므로 빼고 비교하고, 커밋 타이밍에 걸린 일시적 차이를 고치지 않도록
+     * 같은 차이가 두 번 연속 보일 때만 반영한다
+     */
+    @Scheduled(fixedDelayString = "${file.quota.reconcile-interval:PT5M}")
+    public void reconcile() {
+        if (!enabled || usages.isEmpty()) {
+            return;
+        }
+        List<Long> ownerIds = new ArrayList<>(usages.keySet());
+        int corrected = 0;
+        for (int from = 0; from < ownerIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = ownerIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, ownerIds.size()));
+            Map<Long, long[]> stored = new HashMap<>();
+            for (Object[] row : fileMetadataRepository.sumUsageByOwnerIdIn(batch)) {
+                stored.put((Long) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+            }
+            for (Long ownerId : batch) {
+                Usage usage = usages.get(ownerId);
+                long[] actual = stored.getOrDefault(ownerId, new long[2]);
+                if (usage != null && usage.reconcile(actual[0], actual[1])) {
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            log.info("Quota usage reconciled for {} users", corrected);
+        }
+    }
+    
+    private Usage usage(Long ownerId) {
+        Usage usage = usages.get(ownerId);
+        if (usage != null) {
+            return usage;
+        }
+        // 조회는 맵 밖에서 (같은 사용자를 동시에 처음 읽으면 먼저 넣은 쪽을 사용)
+        long bytes = 0;
+        long objects = 0;
+        for (Object[] row : fileMetadataRepository.sumUsageByOwnerIdIn(List.of(ownerId))) {
+            bytes = ((Number) row[1]).longValue();
+            objects = ((Number) row[2]).longValue();
+        }
+        Usage loaded = new Usage(bytes, objects);
+        Usage existing = usages.putIfAbsent(ownerId, loaded);
+        return existing != null ? existing : loaded;
+    }
+    
+    private long maxBytes(User owner) {
+        return owner.getQuotaBytes() != null ? owner.getQuotaBytes() : defaultMaxBytes.toBytes();
+    }
+    
+    private long maxObjects(User owner) {
+        return owner.getQuotaObjects() != null ? owner.getQuotaObjects() : defaultMaxObjects;
+    }
+    
+    /**
+     * 한도 안일 때만 더함 (확인과 증가가 하나의 CAS, 실패하면 다른 업로드가 바꾼 값으로 재시도)
+     */
+    private static boolean tryAdd(AtomicLong counter, long delta, long limit) {
+        while (true) {
+            long current = counter.get();
+            if (delta > 0 && current + delta > limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + delta)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 한 사용자의 사용량 (bytes/objects는 진행 중인 예약 포함)
+     */
+    private static final class Usage {
+        
+        private final AtomicLong bytes;
+        private final AtomicLong objects;
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicLong pendingObjects = new AtomicLong();
+        
+        // 직전 보정에서 본 차이 (보정 스레드만 접근)
+        private long lastBytesDrift;
+        private long lastObjectsDrift;
+        
+        Usage(long bytes, long objects) {
+            this.bytes = new AtomicLong(bytes);
+            this.objects = new AtomicLong(objects);
+        }
+        
+        boolean reconcile(long storedBytes, long storedObjects) {
+            long bytesDrift = storedBytes - (bytes.get() - pendingBytes.get());
+            long objectsDrift = storedObjects - (objects.get() - pendingObjects.get());
+            boolean corrected = false;
+            if (bytesDrift != 0 && bytesDrift == lastBytesDrift) {
+                bytes.addAndGet(bytesDrift);
+                bytesDrift = 0;
+                corrected = true;
+            }
+            if (objectsDrift != 0 && objectsDrift == lastObjectsDrift) {
+                objects.addAndGet(objectsDrift);
+                objectsDrift = 0;
+                corrected = true;
+            }
+            lastBytesDrift = bytesDrift;
+            lastObjectsDrift = objectsDrift;
+            return corrected;
+        }
+    }
+    
+    /**
+     * 업로드 하나의 예약 (commit 전에 닫히면 예약을 되돌림)
+     */
+    public static final class Reservation implements AutoCloseable {
+        
+        private final Usage usage;
+        private final long maxBytes;
+        private final long objects;
+        private long bytes;
+        private boolean done;
+        
+        private Reservation(Usage usage, long maxBytes, long bytes, long objects) {
+            this.usage = usage;
+            this.maxBytes = maxBytes;
+            this.bytes = bytes;
+            this.objects = objects;
+        }
+        
+        /**
+         * 예약 크기를 실제 저장된 크기로 바꿈 (늘어난 만큼 한도를 넘으면 예외, 예약은 그대로 유지)
+         */
+        public void resize(long actualBytes) {
+            if (usage == null || done || actualBytes == bytes) {
+                return;
+            }
+            long delta = actualBytes - bytes;
+            if (!tryAdd(usage.bytes, delta, maxBytes)) {
+                throw new RuntimeException(QUOTA_EXCEEDED);
+            }
+            usage.pendingBytes.addAndGet(delta);
+            bytes = actualBytes;
+        }
+        
+        /**
+         * 지금 이 예약이 더 늘어날 수 있는 바이트 수 (한도 - 현재 사용량, 쿼터가 꺼져 있으면 Long.MAX_VALUE)
+         * 다른 업로드의 예약도 같은 여유를 나눠 쓰므로 실제로 늘릴 때는 resize로 다시 확인해야 한다
+         */
+        public long headroom() {
+            if (usage == null) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, maxBytes - usage.bytes.get());
+        }
+        
+        /**
+         * 메타데이터가 기록된 뒤 호출 (사용량에 그대로 남김)
+         */
+        public void commit() {
+            if (usage == null || done) {
+                return;
+            }
+            done = true;
+            usage.pendingBytes.addAndGet(-bytes);
+            usage.pendingObjects.addAndGet(-objects);
+        }
+        
+        @Override
+        public void close() {
+            if (usage == null || done) {
+                return;
+            }
+            done = true;
+            usage.bytes.addAndGet(-bytes);
+            usage.objects.addAndGet(-objects);
+            usage.pendingBytes.addAndGet(-bytes);
+            usage.pendingObjects.addAndGet(-objects);
+        }
+    }
+    
+    /**
+     * 사용량과 한도 (쿼터가 꺼져 있으면 한도는 -1)
+     */
+    public record QuotaStatus(boolean enabled, long usedBytes, long usedObjects, long maxBytes, long maxObjects) {
+    }
+}
\ No newline at end of file
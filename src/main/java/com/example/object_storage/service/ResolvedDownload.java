@@ -0,0 +1,64 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.entity.FileMetadata;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.storage.BlobLocation;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.time.ZoneId;
+
+/**
+ * 다운로드 링크를 한 번 해석한 결과 (메타데이터 + 저장 위치)
+ * 불변 스냅샷이라 캐시에 두고 여러 요청이 공유한다
+ *
+ * @param contentType 미리 파싱/정규화한 Content-Type
+ * @param fileSize 원본 크기 (압축 저장이면 풀었을 때의 크기)
+ * @param lastModified 업로드 시각 (epoch millis), 모르면 -1
+ * @param contentEncoding 저장 인코딩 (gzip이면 location은 압축본 구간), 원본 그대로면 null
+ * @param crc32 원본 내용의 CRC-32, 모르면 null
+ */
+public record ResolvedDownload(
+        String downloadLink,
+        String originalFilename,
+        String contentType,
+        long fileSize,
+        FilePermission permission,
+        String accessPassword,
+        String blobHash,
+        long lastModified,
+        String contentEncoding,
+        Long crc32,
+        BlobLocation location) {
+    
+    static ResolvedDownload of(FileMetadata file, Blob blob, BlobLocation location) {
+        long lastModified = file.getUploadTime() != null
+                ? file.getUploadTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        return new ResolvedDownload(
+            file.getDownloadLink(),
+            file.getOriginalFilename(),
+            normalizeContentType(file.getContentType()),
+            file.getFileSize(),
+            file.getPermission(),
+            file.getAccessPassword(),
+            file.getBlobHash(),
+            lastModified,
+            blob.getEncoding(),
+            blob.getCrc32(),
+            location
+        );
+    }
+    
+    private static String normalizeContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        try {
+            return MediaType.parseMediaType(contentType).toString();
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.object_storage.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 저장소 주요 작업(업로드, 다운로드, 목록, 삭제)의 Micrometer 계측
+ *
+ * - storage.operation: 작업 전체 시간 (operation, outcome 태그)
+ * - storage.operation.phase: 단계별 시간 (operation, phase = auth | metadata | disk)
+ * - storage.operation.active: 진행 중인 작업 수
+ * - storage.operation.transfers: 본문 전송 방식별 횟수 (operation, mode = sendfile | copy)
+ * - storage.download.errors: DownloadController가 응답한 오류 상태별 횟수
+ *
+ * 백분위 히스토그램은 management.metrics.distribution.percentiles-histogram.* 설정으로 켠다
+ */
+@Component
+public class StorageMetrics {
+    
+    public static final String UPLOAD = "upload";
+    public static final String DOWNLOAD = "download";
+    public static final String LIST = "list";
+    public static final String DELETE = "delete";
+    
+    // 토큰 인증/비밀번호 확인, 메타데이터 조회·기록, 디스크 I/O(기록·전송·참조 해제)
+    public static final String PHASE_AUTH = "auth";
+    public static final String PHASE_METADATA = "metadata";
+    public static final String PHASE_DISK = "disk";
+    
+    // 커넥터에 넘긴 zero-copy 전송 / 요청 스레드가 버퍼를 거쳐 쓴 전송
+    public static final String TRANSFER_SENDFILE = "sendfile";
+    public static final String TRANSFER_COPY = "copy";
+    
+    private final MeterRegistry registry;
+    private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+    
+    public StorageMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (String operation : new String[] {UPLOAD, DOWNLOAD, LIST, DELETE}) {
+            AtomicInteger count = new AtomicInteger();
+            active.put(operation, count);
+            Gauge.builder("storage.operation.active", count, AtomicInteger::get)
+                    .tag("operation", operation)
+                    .description("In-flight storage operations")
+                    .register(registry);
+        }
+    }
+    
+    /**
+     * 작업 계측 시작 (try-with-resources로 닫으면 전체 시간이 기록됨)
+     */
+    public Operation start(String operation) {
+        return new Operation(operation);
+    }
+    
+    /**
+     * 요청 토큰 인증 시간 (어떤 작업인지 정해지기 전 단계라 operation은 request)
+     */
+    public void recordAuth(long nanos) {
+        phaseTimer("request", PHASE_AUTH).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordDownloadError(int status) {
+        Counter.builder("storage.download.errors")
+                .tag("status", String.valueOf(status))
+                .description("Download responses by error status")
+                .register(registry)
+                .increment();
+    }
+    
+    private Timer phaseTimer(String operation, String phase) {
+        return Timer.builder("storage.operation.phase")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .description("Time spent in each phase of a storage operation")
+                .register(registry);
+    }
+    
+    /**
+     * 진행 중인 작업 하나의 계측
+     * phase()는 직전 표시 시점부터의 시간을 그 단계로 기록하고, succeed() 없이 닫히면 outcome=error로 기록된다
+     */
+    public final class Operation implements AutoCloseable {
+        
+        private final String operation;
+        private final long started = System.nanoTime();
+        private long mark = started;
+        private boolean succeeded;
+        
+        private Operation(String operation) {
+            this.operation = operation;
+            active.get(operation).incrementAndGet();
+        }
+        
+        public void phase(String phase) {
+            long now = System.nanoTime();
+            phaseTimer(operation, phase).record(now - mark, TimeUnit.NANOSECONDS);
+            mark = now;
+        }
+        
+        /**
+         * 본문 전송 방식을 기록하고 전송 시간을 disk 단계로 기록
+         * sendfile은 요청 스레드가 속성만 설정하고 실제 전송은 응답 뒤 커넥터가 하므로 disk 단계에 넣지 않는다
+         */
+        public void transfer(String mode) {
+            Counter.builder("storage.operation.transfers")
+                    .tag("operation", operation)
+                    .tag("mode", mode)
+                    .description("Response bodies by transfer mode")
+                    .register(registry)
+                    .increment();
+            if (TRANSFER_SENDFILE.equals(mode)) {
+                mark = System.nanoTime();
+                return;
+            }
+            phase(PHASE_DISK);
+        }
+        
+        public <T> T succeed(T result) {
+            succeeded = true;
+            return result;
+        }
+        
+        public void succeed() {
+            succeeded = true;
+        }
+        
+        @Override
+        public void close() {
+            active.get(operation).decrementAndGet();
+            Timer.builder("storage.operation")
+                    .tag("operation", operation)
+                    .tag("outcome", succeeded ? "success" : "error")
+                    .description("Storage operation latency")
+                    .register(registry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.object_storage.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 저장 전 압축 단계 (compress-on-write)
+ * 앞부분 샘플을 먼저 압축해 보고 잘 줄어드는 내용(텍스트, JSON, SVG 등)만 gzip으로 저장한다
+ * 이미 압축된 형식(이미지, 동영상, zip 기반 문서)은 샘플 단계에서 걸러져 원본 그대로 저장된다
+ *
+ * 저장된 gzip 바이트는 Accept-Encoding: gzip 클라이언트에 그대로 전송되므로 읽기 경로에는 압축 비용이 없다
+ */
+@Component
+@RequiredArgsConstructor
+public class BlobCompressor {
+    
+    public static final String GZIP = "gzip";
+    
+    private static final int SAMPLE_OUTPUT_SIZE = 8192;
+    
+    private final TransferEngine transferEngine;
+    
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    
+    @Value("${file.storage.compression.enabled:true}")
+    private boolean enabled;
+    
+    // 이보다 작으면 gzip 헤더/트레일러 비용 때문에 이득이 없음
+    @Value("${file.storage.compression.min-size:1KB}")
+    private DataSize minSize;
+    
+    @Value("${file.storage.compression.sample-size:64KB}")
+    private DataSize sampleSize;
+    
+    // 압축 후 크기 / 원본 크기가 이 값 이하일 때만 압축본을 저장
+    @Value("${file.storage.compression.max-ratio:0.8}")
+    private double maxRatio;
+    
+    @Value("${file.storage.compression.level:6}")
+    private int level;
+    
+    /**
+     * 압축을 시도할 크기인지 확인
+     */
+    public boolean accepts(long size) {
+        return enabled && size >= minSize.toBytes();
+    }
+    
+    /**
+     * source를 gzip으로 압축해 target에 기록
+     *
+     * @return 압축본을 저장해야 하면 true, 원본을 그대로 저장해야 하면 false (target 내용은 무시)
+     */
+    public boolean compress(Path source, long size, Path target) throws IOException {
+        if (!accepts(size)) {
+            return false;
+        }
+        
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (!sampleCompresses(in, size)) {
+                skipped.increment();
+                return false;
+            }
+            
+            try (OutputStream out = new LevelGzipOutputStream(Files.newOutputStream(target), level)) {
+                transferEngine.encode(in, out);
+            }
+        }
+        
+        // 샘플과 달리 전체는 잘 줄지 않은 경우
+        long encodedSize = Files.size(target);
+        if (encodedSize > size * maxRatio) {
+            skipped.increment();
+            return false;
+        }
+        
+        compressed.increment();
+        originalBytes.add(size);
+        storedBytes.add(encodedSize);
+        return true;
+    }
+    
+    public CompressionStats stats() {
+        return new CompressionStats(enabled, compressed.sum(), skipped.sum(), originalBytes.sum(), storedBytes.sum());
+    }
+    
+    /**
+     * 앞부분 샘플을 압축해 본 크기로 압축 여부를 판단
+     */
+    private boolean sampleCompresses(FileChannel in, long size) throws IOException {
+        int length = (int) Math.min(size, sampleSize.toBytes());
+        ByteBuffer sample = ByteBuffer.allocate(length);
+        while (sample.hasRemaining()) {
+            if (in.read(sample, sample.position()) < 0) {
+                break;
+            }
+        }
+        sample.flip();
+        
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] output = new byte[SAMPLE_OUTPUT_SIZE];
+            long deflated = 0;
+            while (!deflater.finished()) {
+                deflated += deflater.deflate(output);
+            }
+            return deflated <= sample.limit() * maxRatio;
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    /**
+     * 압축 레벨을 지정할 수 있는 GZIPOutputStream
+     */
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+        
+        private LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, SAMPLE_OUTPUT_SIZE);
+            def.setLevel(level);
+        }
+    }
+    
+    /**
+     * 압축 저장 현황 (storedBytes / originalBytes가 압축된 객체들의 평균 압축률)
+     */
+    public record CompressionStats(boolean enabled, long compressed, long skipped, long originalBytes, long storedBytes) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.object_storage.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Blob 내용이 놓인 파일 구간
+ * 단독 파일이면 offset은 0, 세그먼트에 묶인 작은 객체면 세그먼트 파일 안의 위치
+ *
+ * @param path 파일 경로
+ * @param offset 시작 위치
+ * @param length 바이트 길이
+ */
+public record BlobLocation(Path path, long offset, long length) {
+}
\ No newline at end of file
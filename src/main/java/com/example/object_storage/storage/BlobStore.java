@@ -0,0 +1,322 @@
+package com.example.object_storage.storage;
+
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.repository.BlobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 내용 주소 기반(content-addressed) 저장소
+ * 업로드 바이트가 들어오는 동안 SHA-256을 계산하고, 같은 해시의 Blob이 이미 있으면 참조 수만 올린다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlobStore {
+    
+    private static final String TEMP_DIR = ".tmp";
+    
+    private final BlobRepository blobRepository;
+    private final StorageLayout storageLayout;
+    private final SegmentStore segmentStore;
+    
+    // 같은 해시에 대한 등록/회수/이동만 직렬화 (서로 다른 내용은 동시에 진행)
+    private final HashLocks hashLocks;
+    private final TransferEngine transferEngine;
+    private final BlobCompressor blobCompressor;
+    
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+    
+    /**
+     * 이전 실행에서 남은 임시 파일 정리
+     */
+    @PostConstruct
+    public void cleanupTempFiles() {
+        Path tempPath = Paths.get(uploadDir).resolve(TEMP_DIR);
+        if (!Files.isDirectory(tempPath)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(tempPath)) {
+            files.forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not remove temp file {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not scan temp directory: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * 스트림을 임시 파일에 한 번 기록하면서 해시를 계산한 뒤 Blob으로 등록
+     *
+     * @param in 입력 스트림
+     * @param maxSize 최대 허용 크기, 넘으면 즉시 중단
+     */
+    public StoredBlob store(InputStream in, long maxSize) throws IOException {
+        MessageDigest digest = newDigest();
+        CRC32 crc = new CRC32();
+        Path tempFile = newTempFile();
+        
+        long size;
+        try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            size = transferEngine.copy(in, out, 0, maxSize, digest, crc);
+            if (size > maxSize) {
+                throw new RuntimeException("File size limit exceeded");
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        
+        String hash = HexFormat.of().formatHex(digest.digest());
+        return commit(encode(tempFile, hash, size), hash, size, crc.getValue());
+    }
+    
+    /**
+     * 이미 디스크에 완성된 파일을 Blob으로 등록 (해시 계산을 위해 한 번 읽고, 이동은 rename)
+     */
+    public StoredBlob storeFile(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        CRC32 crc = new CRC32();
+        long size;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = transferEngine.digest(in, digest, crc);
+        }
+        
+        Path tempFile = newTempFile();
+        Files.move(file, tempFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        String hash = HexFormat.of().formatHex(digest.digest());
+        return commit(encode(tempFile, hash, size), hash, size, crc.getValue());
+    }
+    
+    /**
+     * 참조 하나를 해제하고, 마지막 참조였다면 Blob과 실제 파일을 회수
+     * 세그먼트에 묶인 객체의 공간은 컴팩션이 회수한다
+     */
+    public void release(String hash) throws IOException {
+        release(hash, 1);
+    }
+    
+    /**
+     * 같은 Blob에 대한 참조 여러 개를 한 번에 해제 (묶음 삭제)
+     */
+    public void release(String hash, long count) throws IOException {
+        ReentrantLock lock = hashLocks.lockFor(hash);
+        lock.lock();
+        try {
+            Optional<Blob> blob = blobRepository.findById(hash);
+            blobRepository.decrementRefCount(hash, count);
+            if (blobRepository.deleteIfUnreferenced(hash) > 0
+                    && blob.isPresent() && blob.get().getSegmentId() == null) {
+                storageLayout.delete(hash);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Blob 내용이 놓인 파일 구간
+     */
+    public BlobLocation locate(String hash) {
+        return locate(get(hash));
+    }
+    
+    /**
+     * 저장된 바이트(압축 저장이면 압축본)가 놓인 파일 구간
+     */
+    public BlobLocation locate(Blob blob) {
+        if (blob.getSegmentId() != null) {
+            return new BlobLocation(segmentStore.path(blob.getSegmentId()), blob.getSegmentOffset(), blob.getStoredSize());
+        }
+        // 분산 레이아웃 (마이그레이션 전 파일은 평면 경로)
+        return new BlobLocation(storageLayout.locate(blob.getHash()), 0, blob.getStoredSize());
+    }
+    
+    /**
+     * 미리 기록해 둔 위치(예: presigned URL에 담긴 값)로 DB 조회 없이 구간을 계산
+     * 세그먼트 구간은 기록해 둔 CRC-32와 지금 내용이 같을 때만 그대로 쓰고, 세그먼트가 회수되었거나
+     * 내용이 다르면(또는 CRC가 없으면) 현재 위치를 조회한다
+     *
+     * @param regionCrc 발급 시점 구간 내용의 CRC-32 (regionChecksum), 모르면 null
+     */
+    public BlobLocation locate(String hash, Long segmentId, long offset, long storedSize, Long regionCrc)
+            throws IOException {
+        if (segmentId == null) {
+            return new BlobLocation(storageLayout.locate(hash), 0, storedSize);
+        }
+        BlobLocation location = new BlobLocation(segmentStore.path(segmentId), offset, storedSize);
+        if (regionCrc != null && regionCrc == regionChecksum(location)) {
+            return location;
+        }
+        return locate(hash);
+    }
+    
+    /**
+     * 파일 구간 내용의 CRC-32 (세그먼트 객체는 작으므로 한 번 읽어 계산)
+     *
+     * @return 파일이 없거나 구간이 파일 끝을 넘으면 -1
+     */
+    public long regionChecksum(BlobLocation location) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(Math.max(location.length(), 1), 64 * 1024));
+        try (FileChannel channel = FileChannel.open(location.path(), StandardOpenOption.READ)) {
+            long position = location.offset();
+            long end = location.offset() + location.length();
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    return -1;
+                }
+                buffer.flip();
+                crc.update(buffer);
+                position += n;
+            }
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        return crc.getValue();
+    }
+    
+    public Blob get(String hash) {
+        return blobRepository.findById(hash)
+                .orElseThrow(() -> new RuntimeException("File not found on disk"));
+    }
+    
+    /**
+     * 여러 Blob을 한 번에 조회 (해시 -> Blob, 없는 해시는 빠짐)
+     */
+    public Map<String, Blob> getAll(Collection<String> hashes) {
+        Map<String, Blob> blobs = new HashMap<>();
+        for (Blob blob : blobRepository.findAllById(hashes)) {
+            blobs.put(blob.getHash(), blob);
+        }
+        return blobs;
+    }
+    
+    /**
+     * 새로 저장될 내용이면 압축을 시도 (이미 있는 내용은 참조만 추가되므로 건너뜀)
+     * 압축은 해시 락 밖에서 수행하며, 압축본이 채택되면 원본 임시 파일은 지운다
+     */
+    private Payload encode(Path tempFile, String hash, long size) throws IOException {
+        if (!blobCompressor.accepts(size) || blobRepository.existsById(hash)) {
+            return new Payload(tempFile, size, null);
+        }
+        
+        Path encodedFile = newTempFile();
+        try {
+            if (blobCompressor.compress(tempFile, size, encodedFile)) {
+                Files.deleteIfExists(tempFile);
+                return new Payload(encodedFile, Files.size(encodedFile), BlobCompressor.GZIP);
+            }
+            Files.deleteIfExists(encodedFile);
+            return new Payload(tempFile, size, null);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(encodedFile);
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+    
+    private StoredBlob commit(Payload payload, String hash, long size, long crc32) throws IOException {
+        Path tempFile = payload.file();
+        ReentrantLock lock = hashLocks.lockFor(hash);
+        lock.lock();
+        try {
+            // 이미 같은 내용이 있으면 참조만 추가하고 새 파일은 버림
+            if (blobRepository.incrementRefCount(hash) > 0) {
+                Files.deleteIfExists(tempFile);
+                return new StoredBlob(hash, size, true);
+            }
+            
+            Blob blob = new Blob();
+            blob.setHash(hash);
+            blob.setSize(size);
+            blob.setStoredSize(payload.storedSize());
+            blob.setEncoding(payload.encoding());
+            blob.setCrc32(crc32);
+            blob.setRefCount(1L);
+            
+            if (segmentStore.accepts(payload.storedSize())) {
+                // 작은 객체는 세그먼트에 이어 붙임 (실패해도 남은 바이트는 컴팩션이 회수)
+                segmentStore.append(tempFile, payload.storedSize(), pointer -> {
+                    blob.setSegmentId(pointer.segmentId());
+                    blob.setSegmentOffset(pointer.offset());
+                    blobRepository.save(blob);
+                });
+                Files.deleteIfExists(tempFile);
+            } else {
+                // 세그먼트 추가와 마찬가지로 Blob 행이 저장되기 전에 내용을 디스크에 내림 (해시 락만 잡은 상태)
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+                Path target = storageLayout.prepare(hash);
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                try {
+                    blobRepository.save(blob);
+                } catch (RuntimeException e) {
+                    Files.deleteIfExists(target);
+                    throw e;
+                }
+            }
+            return new StoredBlob(hash, size, false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Path newTempFile() throws IOException {
+        Path tempPath = Paths.get(uploadDir).resolve(TEMP_DIR);
+        if (!Files.exists(tempPath)) {
+            Files.createDirectories(tempPath);
+        }
+        return Files.createFile(tempPath.resolve(UUID.randomUUID().toString()));
+    }
+    
+    /**
+     * 디스크에 놓일 임시 파일과 그 크기/인코딩
+     */
+    private record Payload(Path file, long storedSize, String encoding) {
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
\ No newline at end of file
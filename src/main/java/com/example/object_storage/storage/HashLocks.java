@@ -0,0 +1,27 @@
+package com.example.object_storage.storage;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blob 해시 단위 락 (스트라이프)
+ * 같은 해시의 등록/회수/이동만 직렬화하고 서로 다른 내용은 동시에 진행된다
+ */
+@Component
+public class HashLocks {
+    
+    private static final int STRIPES = 64;
+    
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    
+    public HashLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    public ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), STRIPES)];
+    }
+}
\ No newline at end of file
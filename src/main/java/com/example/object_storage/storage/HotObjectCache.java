@@ -0,0 +1,305 @@
+package com.example.object_storage.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 작고 자주 읽히는 객체를 위한 크기 제한 캐시
+ * 내용은 direct ByteBuffer(off-heap)에 보관해 힙/GC 부담을 늘리지 않으며,
+ * 교체 정책은 segmented LRU (probation 20% / protected 80%)로 한 번만 읽힌 객체가 인기 객체를 밀어내지 않는다
+ *
+ * 조회는 락을 잡지 않는다: ConcurrentHashMap에서 찾고 접근 기록만 스레드별 링 버퍼에 남기며,
+ * 기록은 저장/무효화 때 (또는 버퍼가 찼을 때 tryLock으로) 한꺼번에 LRU 순서에 반영한다
+ * 버퍼가 가득 차면 기록을 버리므로 순서는 근사치지만, 읽기 요청끼리 하나의 락에서 줄 서지 않는다
+ */
+@Component
+public class HotObjectCache {
+    
+    private static final int ACCESS_RING_SIZE = 16;
+    
+    // 조회용 (락 없이 읽음, 변경은 lock을 잡고)
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    // 아래 LRU 순서와 크기는 lock을 잡고만 변경
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    // 처음 들어온 항목 (access order)
+    private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    
+    // 두 번 이상 읽힌 항목 (access order)
+    private final LinkedHashMap<String, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    
+    // 아직 LRU 순서에 반영하지 않은 접근 기록 (스레드별로 나눈 링 버퍼)
+    private final AccessRing[] accessRings = createAccessRings();
+    
+    private long probationBytes;
+    private long protectedBytes;
+    
+    // 적재 도중 무효화가 있었는지 판단하기 위한 세대 번호
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    @Value("${file.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${file.cache.max-size:256MB}")
+    private DataSize maxSize;
+    
+    @Value("${file.cache.max-entry-size:1MB}")
+    private DataSize maxEntrySize;
+    
+    /**
+     * 캐시에 담을 수 있는 크기인지 확인
+     */
+    public boolean admits(long size) {
+        return enabled && size <= maxEntrySize.toBytes() && size <= maxSize.toBytes();
+    }
+    
+    /**
+     * 캐시된 내용의 읽기 전용 뷰, 없으면 null
+     */
+    public ByteBuffer get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        
+        AccessRing ring = accessRings[ringIndex()];
+        if (!ring.offer(entry) && lock.tryLock()) {
+            // 링이 찼으면 비울 수 있을 때만 비움 (다른 스레드가 락을 잡고 있으면 이번 기록은 버림)
+            try {
+                drainAccesses();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return entry.content().duplicate();
+    }
+    
+    /**
+     * 현재 세대 번호 (적재 시작 전에 기록해 두고 put에 넘긴다)
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+    
+    /**
+     * 적재가 시작된 뒤 무효화가 없었을 때만 저장
+     */
+    public void put(String key, ByteBuffer content, long generation) {
+        if (!admits(content.capacity())) {
+            return;
+        }
+        lock.lock();
+        try {
+            drainAccesses();
+            if (generation != invalidations.get() || entries.containsKey(key)) {
+                return;
+            }
+            Entry entry = new Entry(key, content.asReadOnlyBuffer());
+            entries.put(key, entry);
+            probation.put(key, entry);
+            probationBytes += content.capacity();
+            rebalance();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 삭제/권한 변경 시 해당 객체 제거
+     */
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            drainAccesses();
+            entries.remove(key);
+            Entry removed = probation.remove(key);
+            if (removed != null) {
+                probationBytes -= removed.size();
+            }
+            removed = protectedSegment.remove(key);
+            if (removed != null) {
+                protectedBytes -= removed.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(),
+                    probation.size() + protectedSegment.size(), probationBytes + protectedBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 파일 구간을 direct 버퍼로 읽음 (positional read)
+     */
+    public static ByteBuffer read(BlobLocation location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(location.length()));
+        try (FileChannel channel = FileChannel.open(location.path(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, location.offset() + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file: " + location.path());
+                }
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    
+    /**
+     * 쌓인 접근 기록을 LRU 순서에 반영 (lock을 잡은 상태에서 호출)
+     * 두 번째 접근이면 probation에서 protected로 승격
+     */
+    private void drainAccesses() {
+        boolean promoted = false;
+        for (AccessRing ring : accessRings) {
+            Entry entry;
+            while ((entry = ring.poll()) != null) {
+                if (entries.get(entry.key()) != entry) {
+                    // 기록 뒤에 제거/교체된 항목
+                    continue;
+                }
+                if (protectedSegment.get(entry.key()) == null && probation.remove(entry.key()) != null) {
+                    probationBytes -= entry.size();
+                    protectedSegment.put(entry.key(), entry);
+                    protectedBytes += entry.size();
+                    promoted = true;
+                }
+            }
+        }
+        if (promoted) {
+            rebalance();
+        }
+    }
+    
+    /**
+     * protected가 넘치면 probation으로 강등, 전체가 넘치면 probation의 가장 오래된 항목부터 제거
+     */
+    private void rebalance() {
+        long total = maxSize.toBytes();
+        long protectedLimit = total * 4 / 5;
+        
+        Iterator<Map.Entry<String, Entry>> protectedIterator = protectedSegment.entrySet().iterator();
+        while (protectedBytes > protectedLimit && protectedIterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = protectedIterator.next();
+            protectedIterator.remove();
+            protectedBytes -= eldest.getValue().size();
+            probation.put(eldest.getKey(), eldest.getValue());
+            probationBytes += eldest.getValue().size();
+        }
+        
+        Iterator<Map.Entry<String, Entry>> probationIterator = probation.entrySet().iterator();
+        while (probationBytes + protectedBytes > total && probationIterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = probationIterator.next();
+            probationIterator.remove();
+            entries.remove(eldest.getKey());
+            probationBytes -= eldest.getValue().size();
+            evictions.increment();
+        }
+    }
+    
+    private static AccessRing[] createAccessRings() {
+        int count = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 64) * 2 - 1);
+        AccessRing[] rings = new AccessRing[count];
+        for (int i = 0; i < count; i++) {
+            rings[i] = new AccessRing();
+        }
+        return rings;
+    }
+    
+    /**
+     * 스레드마다 (대체로) 다른 링을 쓰도록 스레드 id를 섞어 고름
+     */
+    private int ringIndex() {
+        long mixed = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & (accessRings.length - 1);
+    }
+    
+    /**
+     * 캐시 항목 (내용은 읽기 전용 뷰)
+     */
+    private record Entry(String key, ByteBuffer content) {
+        
+        long size() {
+            return content.capacity();
+        }
+    }
+    
+    /**
+     * 접근 기록용 고정 크기 링 버퍼
+     * 쓰기는 여러 스레드가 CAS로 자리를 잡고, 읽기는 lock을 잡은 스레드 하나만 한다
+     * 자리가 없거나 CAS 경쟁에 지면 기록을 버림 (LRU 순서가 조금 덜 정확해질 뿐)
+     */
+    private static final class AccessRing {
+        
+        private final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(ACCESS_RING_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+        
+        /**
+         * @return 링이 가득 차 기록하지 못했으면 false
+         */
+        boolean offer(Entry entry) {
+            long tail = writes.get();
+            if (tail - reads >= ACCESS_RING_SIZE) {
+                return false;
+            }
+            if (writes.compareAndSet(tail, tail + 1)) {
+                slots.lazySet((int) (tail & (ACCESS_RING_SIZE - 1)), entry);
+            }
+            return true;
+        }
+        
+        /**
+         * 다음 기록, 없거나 아직 쓰는 중이면 null
+         */
+        Entry poll() {
+            long head = reads;
+            if (head == writes.get()) {
+                return null;
+            }
+            int index = (int) (head & (ACCESS_RING_SIZE - 1));
+            Entry entry = slots.get(index);
+            if (entry == null) {
+                return null;
+            }
+            slots.lazySet(index, null);
+            reads = head + 1;
+            return entry;
+        }
+    }
+    
+    /**
+     * 캐시 통계 스냅샷
+     */
+    public record CacheStats(long hits, long misses, long evictions, int entries, long bytes) {
+    }
+}
\ No newline at end of file
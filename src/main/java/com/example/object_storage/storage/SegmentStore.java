@@ -0,0 +1,391 @@
+package com.example.object_storage.storage;
+
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.repository.BlobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 작은 객체를 큰 세그먼트 파일에 이어 붙여 저장하는 append-only 저장 엔진
+ * 객체마다 파일을 만들지 않으므로 inode와 메타데이터 I/O가 줄어든다
+ * 삭제된 객체가 차지하던 공간은 백그라운드 컴팩션이 살아 있는 객체를 옮긴 뒤 회수한다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SegmentStore {
+    
+    private static final String SEGMENT_DIR = ".segments";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.dat");
+    
+    // 다음에 쓸 세그먼트 번호 (컴팩션으로 마지막 세그먼트가 지워진 뒤 재시작해도 번호를 다시 쓰지 않도록 보관)
+    private static final String NEXT_ID_FILE = "next-segment-id";
+    
+    private final BlobRepository blobRepository;
+    private final HashLocks hashLocks;
+    
+    // 활성 세그먼트에 대한 추가(append)만 직렬화
+    private final ReentrantLock appendLock = new ReentrantLock();
+    
+    // 추가 + 행 기록(읽기 락)과 컴팩션 경계 결정(쓰기 락)을 구분
+    private final ReentrantReadWriteLock appendGate = new ReentrantReadWriteLock();
+    
+    // force를 한 번에 하나만 실행 (기다리는 동안 쌓인 추가는 다음 force 한 번으로 함께 내려감)
+    private final ReentrantLock syncLock = new ReentrantLock();
+    
+    // 컴팩션으로 비워졌지만 아직 읽고 있을 수 있는 세그먼트 -> 비운 시각
+    private final Map<Long, Instant> retiredSegments = new ConcurrentHashMap<>();
+    
+    private long nextSegmentId;
+    private volatile long activeSegmentId = -1;
+    private FileChannel activeChannel;
+    private long activeSize;
+    
+    // 활성 세그먼트에서 force로 디스크에 내려간 위치 (appendLock으로 보호)
+    private long syncedSize;
+    
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+    
+    @Value("${file.storage.segment.enabled:true}")
+    private boolean enabled;
+    
+    // 이 크기 이하의 객체만 세그먼트에 저장
+    @Value("${file.storage.segment.max-object-size:64KB}")
+    private DataSize maxObjectSize;
+    
+    @Value("${file.storage.segment.segment-size:256MB}")
+    private DataSize segmentSize;
+    
+    // 삭제된 바이트 비율이 이 값 이상이면 컴팩션 대상
+    @Value("${file.storage.segment.compaction-garbage-ratio:0.5}")
+    private double compactionGarbageRatio;
+    
+    // 비운 세그먼트를 실제로 지우기 전까지 기다리는 시간 (진행 중인 읽기 보호)
+    @Value("${file.storage.segment.retired-grace-period:PT10M}")
+    private Duration retiredGracePeriod;
+    
+    /**
+     * 보관된 번호와 기존 세그먼트 번호 중 큰 쪽 다음부터 새 세그먼트를 사용 (이전 실행의 꼬리에는 이어 쓰지 않음)
+     * 번호는 한 번 쓰면 다시 쓰지 않으므로, 회수된 세그먼트를 가리키는 오래된 위치가 다른 내용을 읽지 않는다
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Path directory = segmentDirectory();
+        Files.createDirectories(directory);
+        
+        long maxId = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    maxId = Math.max(maxId, Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        nextSegmentId = Math.max(maxId + 1, readNextSegmentId());
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (activeChannel != null) {
+                activeChannel.force(false);
+                activeChannel.close();
+                activeChannel = null;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    /**
+     * 세그먼트에 저장할 크기인지 확인
+     */
+    public boolean accepts(long size) {
+        return enabled && size <= maxObjectSize.toBytes();
+    }
+    
+    /**
+     * 파일 내용을 활성 세그먼트 끝에 추가하고, 같은 구간 안에서 호출자가 위치를 기록(Blob 행 저장)하게 함
+     * 기록이 끝날 때까지 컴팩션이 경계를 정하지 못하므로, 추가는 되었지만 아직 행이 없는 객체를
+     * 컴팩션이 못 보고 세그먼트를 회수하는 일이 없다
+     */
+    public void append(Path source, long length, AppendCallback callback) throws IOException {
+        appendGate.readLock().lock();
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            callback.appended(appendRegion(sourceChannel, 0, length));
+        } finally {
+            appendGate.readLock().unlock();
+        }
+    }
+    
+    public Path path(long segmentId) {
+        return segmentDirectory().resolve(String.format("segment-%06d.dat", segmentId));
+    }
+    
+    /**
+     * 삭제된 바이트가 많은 세그먼트의 살아 있는 객체를 활성 세그먼트로 옮기고 세그먼트를 회수
+     * 시작 시점의 활성 세그먼트와 그 뒤에 만들어진 세그먼트는 건너뛴다 (진행 중에 세그먼트가 바뀌어도 대상이 늘지 않음)
+     */
+    @Scheduled(fixedDelayString = "${file.storage.segment.compaction-interval:PT30M}")
+    public void compact() {
+        purgeRetiredSegments();
+        
+        // 진행 중인 추가의 행 기록이 끝나기를 기다린 뒤 경계를 정함 (경계 아래 세그먼트의 행은 모두 저장된 상태)
+        long boundary;
+        appendGate.writeLock().lock();
+        try {
+            appendLock.lock();
+            try {
+                boundary = activeSegmentId >= 0 ? activeSegmentId : nextSegmentId;
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            appendGate.writeLock().unlock();
+        }
+        
+        try (Stream<Path> files = Files.list(segmentDirectory())) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                long segmentId = Long.parseLong(matcher.group(1));
+                if (segmentId >= boundary || retiredSegments.containsKey(segmentId)) {
+                    continue;
+                }
+                compactSegment(segmentId);
+            }
+        } catch (IOException e) {
+            log.warn("Segment compaction failed: {}", e.getMessage());
+        }
+    }
+    
+    private void compactSegment(long segmentId) throws IOException {
+        // 살아 있는 바이트는 세그먼트마다 이 시점에 다시 계산
+        long total = Files.size(path(segmentId));
+        List<Blob> candidates = blobRepository.findBySegmentId(segmentId);
+        long live = candidates.stream().mapToLong(Blob::getStoredSize).sum();
+        if (total > 0 && (double) (total - live) / total < compactionGarbageRatio) {
+            return;
+        }
+        
+        int moved = 0;
+        try (FileChannel source = FileChannel.open(path(segmentId), StandardOpenOption.READ)) {
+            for (Blob candidate : candidates) {
+                ReentrantLock lock = hashLocks.lockFor(candidate.getHash());
+                lock.lock();
+                try {
+                    // 락을 잡은 뒤 다시 읽어 동시에 삭제/이동된 객체는 건너뜀
+                    Optional<Blob> current = blobRepository.findById(candidate.getHash());
+                    if (current.isEmpty() || !Long.valueOf(segmentId).equals(current.get().getSegmentId())) {
+                        continue;
+                    }
+                    Blob blob = current.get();
+                    SegmentPointer pointer = appendRegion(source, blob.getSegmentOffset(), blob.getStoredSize());
+                    blobRepository.updateLocation(blob.getHash(), pointer.segmentId(), pointer.offset());
+                    moved++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        
+        // 옮기는 동안 세그먼트가 자랐거나 아직 이 세그먼트를 가리키는 행이 있으면 회수하지 않음
+        appendLock.lock();
+        try {
+            if (segmentId == activeSegmentId || Files.size(path(segmentId)) != total) {
+                log.warn("Segment {} changed during compaction, not retired", segmentId);
+                return;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        if (blobRepository.existsBySegmentId(segmentId)) {
+            log.warn("Segment {} still referenced after compaction, not retired", segmentId);
+            return;
+        }
+        
+        retiredSegments.put(segmentId, Instant.now());
+        log.info("Segment {} compacted: {} live objects moved", segmentId, moved);
+    }
+    
+    private void purgeRetiredSegments() {
+        Instant threshold = Instant.now().minus(retiredGracePeriod);
+        retiredSegments.entrySet().removeIf(entry -> {
+            if (entry.getValue().isAfter(threshold)) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(path(entry.getKey()));
+                return true;
+            } catch (IOException e) {
+                log.warn("Could not delete retired segment {}: {}", entry.getKey(), e.getMessage());
+                return false;
+            }
+        });
+    }
+    
+    private SegmentPointer appendRegion(FileChannel source, long offset, long length) throws IOException {
+        SegmentPointer pointer;
+        appendLock.lock();
+        try {
+            if (activeChannel == null || (activeSize > 0 && activeSize + length > segmentSize.toBytes())) {
+                rollSegment();
+            }
+            
+            long position = activeSize;
+            long transferred = 0;
+            while (transferred < length) {
+                long n = activeChannel.transferFrom(source.position(offset + transferred), position + transferred,
+                        length - transferred);
+                if (n <= 0) {
+                    throw new IOException("Unexpected end of source while appending to segment");
+                }
+                transferred += n;
+            }
+            activeSize += length;
+            pointer = new SegmentPointer(activeSegmentId, position);
+        } finally {
+            appendLock.unlock();
+        }
+        
+        // 호출자가 Blob 행을 저장(또는 위치를 갱신)하기 전에 내용이 디스크에 남도록 함
+        sync(pointer.segmentId(), pointer.offset() + length);
+        return pointer;
+    }
+    
+    /**
+     * 세그먼트의 end 위치까지 디스크에 남을 때까지 대기 (group commit)
+     * force는 추가 락 밖에서 한 번에 한 스레드만 하고, 그 시점까지 추가된 모든 바이트를 함께 내리므로
+     * 기다리던 다른 쓰기는 대부분 자기 차례에 이미 반영된 것을 확인하고 바로 돌아간다
+     */
+    private void sync(long segmentId, long end) throws IOException {
+        syncLock.lock();
+        try {
+            FileChannel channel;
+            long target;
+            appendLock.lock();
+            try {
+                // 세그먼트가 바뀌었거나 닫혔으면 rollSegment/close가 닫기 전에 이미 force함
+                if (segmentId != activeSegmentId || activeChannel == null || syncedSize >= end) {
+                    return;
+                }
+                channel = activeChannel;
+                target = activeSize;
+            } finally {
+                appendLock.unlock();
+            }
+            
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // force 도중 세그먼트가 바뀌어 닫힘 (닫기 전에 force됨)
+                return;
+            }
+            
+            appendLock.lock();
+            try {
+                if (segmentId == activeSegmentId) {
+                    syncedSize = Math.max(syncedSize, target);
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    private void rollSegment() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(false);
+            activeChannel.close();
+        }
+        // 번호를 먼저 보관한 뒤 파일을 만듦 (그 사이에 중단되면 번호 하나를 건너뛸 뿐 재사용하지 않음)
+        writeNextSegmentId(nextSegmentId + 1);
+        activeSegmentId = nextSegmentId++;
+        activeChannel = FileChannel.open(path(activeSegmentId),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeSize = 0;
+        syncedSize = 0;
+    }
+    
+    private long readNextSegmentId() throws IOException {
+        Path file = segmentDirectory().resolve(NEXT_ID_FILE);
+        if (!Files.exists(file)) {
+            return 1;
+        }
+        try {
+            return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt segment id file: " + file, e);
+        }
+    }
+    
+    /**
+     * 임시 파일에 쓰고 fsync한 뒤 원자적으로 교체
+     */
+    private void writeNextSegmentId(long nextId) throws IOException {
+        Path file = segmentDirectory().resolve(NEXT_ID_FILE);
+        Path temp = segmentDirectory().resolve(NEXT_ID_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = ByteBuffer.wrap(Long.toString(nextId).getBytes(StandardCharsets.US_ASCII));
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private Path segmentDirectory() {
+        return Paths.get(uploadDir).resolve(SEGMENT_DIR);
+    }
+    
+    /**
+     * 세그먼트 안의 저장 위치
+     */
+    public record SegmentPointer(long segmentId, long offset) {
+    }
+    
+    /**
+     * 추가된 위치를 기록하는 콜백 (보통 Blob 행 저장)
+     */
+    @FunctionalInterface
+    public interface AppendCallback {
+        void appended(SegmentPointer pointer) throws IOException;
+    }
+}
\ No newline at end of file
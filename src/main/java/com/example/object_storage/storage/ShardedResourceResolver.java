@@ -0,0 +1,45 @@
+package com.example.object_storage.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * /files/{hash} 요청을 StorageLayout의 분산 경로로 찾아 주는 리소스 리졸버
+ * 업로드 디렉토리에는 세그먼트(.segments), 임시 파일(.tmp), multipart 스테이징 파일도 있으므로
+ * SHA-256 키가 아닌 경로는 체인의 다음 리졸버(PathResourceResolver)로 넘기지 않고 404로 끝낸다
+ */
+public class ShardedResourceResolver extends AbstractResourceResolver {
+    
+    private static final Pattern HASH_KEY = Pattern.compile("[0-9a-f]{64}");
+    
+    private final StorageLayout storageLayout;
+    
+    public ShardedResourceResolver(StorageLayout storageLayout) {
+        this.storageLayout = storageLayout;
+    }
+    
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        if (!HASH_KEY.matcher(requestPath).matches()) {
+            return null;
+        }
+        Path path = storageLayout.locate(requestPath);
+        return Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+    
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return HASH_KEY.matcher(resourceUrlPath).matches() ? resourceUrlPath : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.example.object_storage.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 디렉토리의 해시 분산(fan-out) 레이아웃
+ * 키 ab12cd...는 uploadDir/ab/12/ab12cd... 에 저장되어 한 디렉토리의 항목 수가 256개 단위로 나뉜다
+ * 마이그레이션 중에는 기존 평면(flat) 경로도 함께 찾는다
+ */
+@Component
+public class StorageLayout {
+    
+    private static final Pattern HEX_KEY = Pattern.compile("[0-9a-f]{8,}");
+    
+    // 이미 만든 샤드 디렉토리 (최대 256^levels개)
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
+    
+    @Value("${file.upload.dir:./uploads}")
+    private String uploadDir;
+    
+    // 디렉토리 단계 수, 단계마다 256개로 분산
+    @Value("${file.storage.fan-out-levels:2}")
+    private int fanOutLevels;
+    
+    public Path root() {
+        return Paths.get(uploadDir);
+    }
+    
+    /**
+     * 키의 분산 경로 (새 레이아웃)
+     */
+    public Path resolve(String key) {
+        String prefix = shardPrefix(key);
+        Path path = root();
+        for (int level = 0; level < fanOutLevels; level++) {
+            path = path.resolve(prefix.substring(level * 2, level * 2 + 2));
+        }
+        return path.resolve(key);
+    }
+    
+    /**
+     * 읽기용 경로: 분산 경로에 없으면 아직 옮겨지지 않은 평면 경로를 반환
+     */
+    public Path locate(String key) {
+        Path sharded = resolve(key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path flat = legacyPath(key);
+        return Files.exists(flat) ? flat : sharded;
+    }
+    
+    /**
+     * 쓰기용 경로: 상위 샤드 디렉토리를 만들어 둔 분산 경로
+     */
+    public Path prepare(String key) throws IOException {
+        Path path = resolve(key);
+        Path parent = path.getParent();
+        if (createdDirectories.add(parent)) {
+            try {
+                Files.createDirectories(parent);
+            } catch (IOException e) {
+                createdDirectories.remove(parent);
+                throw e;
+            }
+        }
+        return path;
+    }
+    
+    /**
+     * 키에 해당하는 파일을 두 레이아웃 모두에서 삭제
+     */
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+        Files.deleteIfExists(legacyPath(key));
+    }
+    
+    /**
+     * 평면 레이아웃의 경로 (마이그레이션 이전)
+     */
+    public Path legacyPath(String key) {
+        return root().resolve(key);
+    }
+    
+    /**
+     * 해시 키는 앞자리를 그대로, 그 외 이름(예: UUID_파일명)은 이름의 SHA-256 앞자리를 사용
+     */
+    private String shardPrefix(String key) {
+        if (HEX_KEY.matcher(key).matches() && key.length() >= fanOutLevels * 2) {
+            return key;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.example.object_storage.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 평면 레이아웃의 기존 파일을 분산 레이아웃으로 옮기는 마이그레이션 도구
+ * 읽기는 StorageLayout.locate()가 두 위치를 모두 찾으므로 서비스 중에 실행해도 된다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageLayoutMigrator implements ApplicationRunner {
+    
+    private final StorageLayout storageLayout;
+    private final ThreadFactory backgroundThreadFactory;
+    
+    @Value("${file.storage.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+    
+    @Value("${file.storage.migration-parallelism:4}")
+    private int parallelism;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        
+        // 기동을 막지 않도록 백그라운드에서 실행
+        Thread worker = backgroundThreadFactory.newThread(() -> {
+            try {
+                migrate();
+            } catch (IOException e) {
+                log.error("Storage layout migration failed: {}", e.getMessage());
+            }
+        });
+        worker.start();
+    }
+    
+    /**
+     * 업로드 디렉토리 최상위의 일반 파일을 병렬로 분산 경로로 이동
+     *
+     * @return 옮긴 파일 수
+     */
+    public long migrate() throws IOException {
+        Path root = storageLayout.root();
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        
+        AtomicLong moved = new AtomicLong();
+        long started = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        
+        try (Stream<Path> entries = Files.list(root)) {
+            pool.submit(() -> entries.parallel()
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .forEach(path -> {
+                        if (moveOne(path)) {
+                            moved.incrementAndGet();
+                        }
+                    })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Migration worker failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        
+        log.info("Storage layout migration finished: {} files moved in {} ms",
+                moved.get(), System.currentTimeMillis() - started);
+        return moved.get();
+    }
+    
+    private boolean moveOne(Path source) {
+        String key = source.getFileName().toString();
+        try {
+            Path target = storageLayout.prepare(key);
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // 같은 내용이 이미 새 위치에 있으면 평면 쪽은 중복본
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException ignored) {
+                // 다음 실행에서 다시 시도
+            }
+            return false;
+        } catch (NoSuchFileException e) {
+            // 이동 중 삭제된 파일
+            return false;
+        } catch (IOException e) {
+            log.warn("Could not migrate {}: {}", source, e.getMessage());
+            return false;
+        }
+    }
+}
\ No newline at end of file
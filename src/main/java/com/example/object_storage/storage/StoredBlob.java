@@ -0,0 +1,11 @@
+package com.example.object_storage.storage;
+
+/**
+ * BlobStore에 등록된 결과
+ *
+ * @param hash 내용의 SHA-256 (hex)
+ * @param size 바이트 크기
+ * @param deduplicated 이미 있던 Blob을 재사용했으면 true
+ */
+public record StoredBlob(String hash, long size, boolean deduplicated) {
+}
\ No newline at end of file
@@ -0,0 +1,390 @@
+package com.example.object_storage.storage;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Checksum;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 업로드/다운로드의 모든 바이트 복사를 담당하는 전송 엔진
+ * 요청마다 버퍼를 새로 만들지 않고 풀에서 빌려 쓰므로 동시 전송이 많아도 young GC가 늘지 않는다
+ * 
+ * - 서블릿 스트림과 gzip 스트림은 byte[]만 받으므로 스트림이 낀 복사는 모두 배열 기반 버퍼 풀을 사용한다
+ *   (direct 버퍼를 쓰면 Channels.newChannel이 다시 byte[]로 옮겨 담으므로 복사가 줄지 않음)
+ * - 채널에서 읽어 바로 소비하는 I/O(완성된 파일의 해시 계산)만 direct 버퍼 풀을 사용해 JDK 내부 임시 버퍼 복사를 피한다
+ *   이 경로는 multipart 완료에서만 쓰이므로 direct 풀은 따로 작게 둔다
+ */
+@Component
+public class TransferEngine {
+    
+    // GZIPInputStream 내부 입력 버퍼 (압축된 쪽이므로 작게)
+    private static final int GZIP_INPUT_BUFFER_SIZE = 8192;
+    
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    
+    // 마지막 샘플 시점의 누적 값과 그 사이의 초당 전송량
+    private long lastSampleNanos = System.nanoTime();
+    private long lastBytesIn;
+    private long lastBytesOut;
+    private volatile long bytesInPerSecond;
+    private volatile long bytesOutPerSecond;
+    
+    private BufferPool directPool;
+    private BufferPool heapPool;
+    
+    @Value("${file.transfer.buffer-size:64KB}")
+    private DataSize bufferSize;
+    
+    // 풀마다 보관하는 최대 버퍼 수 (넘는 요청은 임시 버퍼를 만들어 쓰고 버림)
+    @Value("${file.transfer.max-pooled-buffers:256}")
+    private int maxPooledBuffers;
+    
+    // direct 버퍼는 해시 계산에만 쓰이므로 동시 multipart 완료 수만큼이면 충분
+    @Value("${file.transfer.max-pooled-direct-buffers:16}")
+    private int maxPooledDirectBuffers;
+    
+    @PostConstruct
+    public void init() {
+        int size = Math.toIntExact(bufferSize.toBytes());
+        directPool = new BufferPool(true, size, maxPooledDirectBuffers);
+        heapPool = new BufferPool(false, size, maxPooledBuffers);
+    }
+    
+    /**
+     * 입력 스트림을 파일의 position 위치부터 기록 (업로드)
+     * limit을 넘는 바이트가 오면 더 쓰지 않고 limit + 1을 반환하므로 호출자가 초과를 판단한다
+     *
+     * @param digest 기록하는 바이트로 갱신할 해시, 필요 없으면 null
+     * @param checksum 기록하는 바이트로 갱신할 CRC, 필요 없으면 null
+     * @return 기록한 바이트 수, limit 초과 시 limit + 1
+     */
+    public long copy(InputStream in, FileChannel target, long position, long limit,
+                     MessageDigest digest, Checksum checksum) throws IOException {
+        ByteBuffer buffer = heapPool.acquire();
+        try {
+            byte[] chunk = buffer.array();
+            long written = 0;
+            int read;
+            while ((read = in.read(chunk, 0, chunk.length)) != -1) {
+                if (written + read > limit) {
+                    return limit + 1;
+                }
+                if (digest != null) {
+                    digest.update(chunk, 0, read);
+                }
+                if (checksum != null) {
+                    checksum.update(chunk, 0, read);
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer, position + written + buffer.position());
+                }
+                written += read;
+                bytesIn.add(read);
+            }
+            return written;
+        } finally {
+            heapPool.release(buffer);
+        }
+    }
+    
+    /**
+     * 파일 구간을 출력 스트림으로 전송 (다운로드)
+     */
+    public void copy(FileChannel source, long position, long count, OutputStream out) throws IOException {
+        ByteBuffer buffer = heapPool.acquire();
+        try {
+            byte[] chunk = buffer.array();
+            long remaining = count;
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(chunk.length, remaining));
+                int read = source.read(buffer, position + count - remaining);
+                if (read <= 0) {
+                    // 전송 도중 파일이 잘린 경우
+                    throw new IOException("Unexpected end of file: " + source.size());
+                }
+                out.write(chunk, 0, read);
+                remaining -= read;
+                bytesOut.add(read);
+            }
+        } finally {
+            heapPool.release(buffer);
+        }
+    }
+    
+    /**
+     * 메모리(캐시)에 있는 내용을 출력 스트림으로 전송
+     */
+    public void write(ByteBuffer content, OutputStream out) throws IOException {
+        ByteBuffer region = content.duplicate();
+        ByteBuffer buffer = heapPool.acquire();
+        try {
+            byte[] chunk = buffer.array();
+            while (region.hasRemaining()) {
+                int n = Math.min(chunk.length, region.remaining());
+                region.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+                bytesOut.add(n);
+            }
+        } finally {
+            heapPool.release(buffer);
+        }
+    }
+    
+    /**
+     * 압축 저장된(gzip) 파일 구간을 풀면서 출력 스트림으로 전송
+     */
+    public void decode(FileChannel source, long position, long count, OutputStream out) throws IOException {
+        decode(new RegionInputStream(source, position, count), 0, -1, out);
+    }
+    
+    /**
+     * 압축 저장된(gzip) 파일 구간을 풀면서 풀린 바이트 기준 [start, start + length) 구간을 출력 스트림으로 전송
+     * (Accept-Encoding을 보내지 않은 클라이언트용, 앞부분은 풀기만 하고 버림)
+     */
+    public void decode(FileChannel source, long position, long count, long start, long length,
+                       OutputStream out) throws IOException {
+        decode(new RegionInputStream(source, position, count), start, length, out);
+    }
+    
+    /**
+     * 메모리(캐시)에 있는 gzip 내용을 풀면서 풀린 바이트 기준 구간을 출력 스트림으로 전송
+     */
+    public void decode(ByteBuffer content, long start, long length, OutputStream out) throws IOException {
+        ByteBuffer region = content.duplicate();
+        decode(new InputStream() {
+            @Override
+            public int read() {
+                return region.hasRemaining() ? region.get() & 0xff : -1;
+            }
+            
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!region.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, region.remaining());
+                region.get(b, off, n);
+                return n;
+            }
+        }, start, length, out);
+    }
+    
+    /**
+     * 파일 전체를 압축 스트림 등 로컬 출력으로 복사 (네트워크 전송량에는 포함하지 않음)
+     */
+    public void encode(FileChannel source, OutputStream out) throws IOException {
+        ByteBuffer buffer = heapPool.acquire();
+        try {
+            byte[] chunk = buffer.array();
+            long position = 0;
+            int read;
+            while ((read = source.read(buffer.clear(), position)) != -1) {
+                out.write(chunk, 0, read);
+                position += read;
+            }
+        } finally {
+            heapPool.release(buffer);
+        }
+    }
+    
+    /**
+     * 파일 전체를 읽어 해시(와 CRC)를 갱신하고 크기를 반환
+     *
+     * @param checksum 함께 갱신할 CRC, 필요 없으면 null
+     */
+    public long digest(FileChannel source, MessageDigest digest, Checksum checksum) throws IOException {
+        ByteBuffer buffer = directPool.acquire();
+        try {
+            long size = 0;
+            while (source.read(buffer.clear(), size) != -1) {
+                size += buffer.position();
+                buffer.flip();
+                if (checksum != null) {
+                    checksum.update(buffer.duplicate());
+                }
+                digest.update(buffer);
+            }
+            return size;
+        } finally {
+            directPool.release(buffer);
+        }
+    }
+    
+    /**
+     * 엔진을 거치지 않고 커넥터(sendfile)가 보낸 바이트도 전송량에 포함
+     */
+    public void recordSent(long count) {
+        bytesOut.add(count);
+    }
+    
+    @Scheduled(fixedRateString = "${file.transfer.rate-sample-interval:PT1S}")
+    public synchronized void sampleRates() {
+        long now = System.nanoTime();
+        long in = bytesIn.sum();
+        long out = bytesOut.sum();
+        double seconds = (now - lastSampleNanos) / 1_000_000_000.0;
+        if (seconds > 0) {
+            bytesInPerSecond = (long) ((in - lastBytesIn) / seconds);
+            bytesOutPerSecond = (long) ((out - lastBytesOut) / seconds);
+        }
+        lastSampleNanos = now;
+        lastBytesIn = in;
+        lastBytesOut = out;
+    }
+    
+    public TransferStats stats() {
+        return new TransferStats(bytesIn.sum(), bytesOut.sum(), bytesInPerSecond, bytesOutPerSecond,
+                directPool.stats(), heapPool.stats());
+    }
+    
+    /**
+     * @param length 보낼 바이트 수, 음수면 끝까지
+     */
+    private void decode(InputStream encoded, long start, long length, OutputStream out) throws IOException {
+        ByteBuffer buffer = heapPool.acquire();
+        try (InputStream in = new GZIPInputStream(encoded, GZIP_INPUT_BUFFER_SIZE)) {
+            byte[] chunk = buffer.array();
+            long skip = start;
+            long remaining = length < 0 ? Long.MAX_VALUE : length;
+            while (remaining > 0) {
+                int read = in.read(chunk, 0, (int) Math.min(chunk.length, skip + Math.min(remaining, chunk.length)));
+                if (read == -1) {
+                    if (length < 0) {
+                        break;
+                    }
+                    throw new IOException("Unexpected end of encoded content");
+                }
+                // 구간 앞부분은 풀기만 하고 버림
+                int skipped = (int) Math.min(skip, read);
+                skip -= skipped;
+                int n = read - skipped;
+                if (n > 0) {
+                    out.write(chunk, skipped, n);
+                    remaining -= n;
+                    bytesOut.add(n);
+                }
+            }
+        } finally {
+            heapPool.release(buffer);
+        }
+    }
+    
+    /**
+     * 파일의 한 구간만 읽는 입력 스트림
+     * 세그먼트 안의 gzip 뒤에 이어진 다른 객체를 GZIPInputStream이 다음 멤버로 읽지 않도록 경계를 둔다
+     */
+    private static final class RegionInputStream extends InputStream {
+        
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+        
+        private RegionInputStream(FileChannel channel, long position, long count) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = count;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+            if (n <= 0) {
+                throw new IOException("Unexpected end of file: " + channel.size());
+            }
+            position += n;
+            remaining -= n;
+            return n;
+        }
+        
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+    }
+    
+    /**
+     * 고정 크기 버퍼 풀 (비어 있으면 새로 만들고, 가득 차면 반납된 버퍼는 버림)
+     */
+    private static final class BufferPool {
+        
+        private final boolean direct;
+        private final int bufferSize;
+        private final int capacity;
+        private final BlockingQueue<ByteBuffer> idle;
+        
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger peakInUse = new AtomicInteger();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder allocations = new LongAdder();
+        
+        private BufferPool(boolean direct, int bufferSize, int capacity) {
+            this.direct = direct;
+            this.bufferSize = bufferSize;
+            this.capacity = capacity;
+            this.idle = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+        
+        ByteBuffer acquire() {
+            acquisitions.increment();
+            peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            
+            ByteBuffer buffer = idle.poll();
+            if (buffer == null) {
+                allocations.increment();
+                buffer = direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+            }
+            return buffer.clear();
+        }
+        
+        void release(ByteBuffer buffer) {
+            inUse.decrementAndGet();
+            if (capacity > 0) {
+                idle.offer(buffer);
+            }
+        }
+        
+        PoolStats stats() {
+            return new PoolStats(capacity, bufferSize, inUse.get(), peakInUse.get(), idle.size(),
+                    acquisitions.sum(), allocations.sum());
+        }
+    }
+    
+    /**
+     * 전송량 스냅샷
+     */
+    public record TransferStats(long bytesIn, long bytesOut, long bytesInPerSecond, long bytesOutPerSecond,
+                                PoolStats directPool, PoolStats heapPool) {
+    }
+    
+    /**
+     * 버퍼 풀 사용 현황 (allocations가 acquisitions에 비해 계속 늘면 풀이 작은 것)
+     */
+    public record PoolStats(int capacity, int bufferSize, int inUse, int peakInUse, int idle,
+                            long acquisitions, long allocations) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.example.object_storage.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 항목마다 만료 시각을 갖는 크기 제한 캐시
+ * 읽기는 락 없이 처리되며, 가득 차면 만료된 항목을 먼저 비우고 그래도 넘치면 임의의 항목을 내보낸다
+ *
+ * @param <K> 키 타입
+ * @param <V> 값 타입
+ */
+public class ExpiringCache<K, V> {
+    
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    
+    // 적재 도중 무효화가 있었는지 판단하기 위한 세대 번호
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    public ExpiringCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    /**
+     * 만료되지 않은 값, 없으면 null
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+    
+    /**
+     * 현재 세대 번호 (적재 시작 전에 기록해 두고 put에 넘긴다)
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+    
+    /**
+     * 적재가 시작된 뒤 무효화가 없었을 때만 저장
+     *
+     * @param expiresAt 만료 시각 (epoch millis)
+     */
+    public void put(K key, V value, long expiresAt, long generation) {
+        if (maxEntries <= 0 || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+        
+        // 저장 직전에 무효화가 끼어들었으면 되돌림
+        if (generation != invalidations.get()) {
+            entries.remove(key);
+        }
+    }
+    
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+    
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public long hits() {
+        return hits.sum();
+    }
+    
+    public long misses() {
+        return misses.sum();
+    }
+    
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+    
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.example.object_storage.util;
+
+import com.example.object_storage.storage.BlobLocation;
+import com.example.object_storage.storage.TransferEngine;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * HTTP Range / If-Range 요청을 처리하여 파일 내용을 응답으로 전송하는 컴포넌트
+ * zero-copy(Tomcat sendfile)는 커넥터가 지원할 때 전체 본문 또는 sendfile-min-size 이상인 단일 구간에만 쓰인다
+ * multipart/byteranges 파트, 작은 구간, sendfile이 없는 커넥터는 TransferEngine의 풀 버퍼를 거쳐 복사하고,
+ * 캐시에 올라온 작은 객체는 메모리 버퍼에서 응답 스트림으로 복사한다
+ * 압축 저장된 객체는 클라이언트가 받을 수 있으면 압축본 그대로(Range도 압축본 기준), 아니면 풀어서 전송한다
+ * (풀어서 보낼 때의 Range는 풀린 바이트 기준)
+ */
+@Component
+@RequiredArgsConstructor
+public class RangeResponseWriter {
+    
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private static final String CRLF = "\r\n";
+    
+    private final TransferEngine transferEngine;
+    
+    // 이보다 작은 구간은 sendfile 설정 비용이 더 크므로 직접 전송
+    @Value("${file.download.sendfile-min-size:49152}")
+    private long sendfileMinSize;
+    
+    /**
+     * 요청의 Range 헤더에 따라 200 / 206 / 416 응답을 작성
+     *
+     * @param location 전송할 파일 구간
+     * @param contentType 응답 Content-Type
+     * @param etag 보낼 표현의 강한 ETag (If-Range 비교용), 없으면 null
+     * @param lastModified 마지막 수정 시각(epoch millis), 알 수 없으면 -1
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, BlobLocation location,
+                      String contentType, String etag, long lastModified) throws IOException {
+        writeBody(request, response, location.length(), contentType, etag, lastModified,
+                (start, count, sendfileAllowed) -> transfer(request, response, location, start, count, sendfileAllowed));
+    }
+    
+    /**
+     * 메모리(캐시)에 있는 내용으로 응답 작성
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, ByteBuffer content,
+                      String contentType, String etag, long lastModified) throws IOException {
+        writeBody(request, response, content.remaining(), contentType, etag, lastModified,
+                (start, count, sendfileAllowed) -> writeBuffer(response, content, start, count));
+    }
+    
+    /**
+     * 압축 저장된 파일 구간을 풀어서 응답 작성 (Accept-Encoding에 저장 인코딩이 없는 클라이언트)
+     * Range는 풀린 바이트 기준이며, 구간 앞부분을 풀면서 건너뛰므로 뒤쪽 구간일수록 CPU를 더 쓴다
+     *
+     * @param decodedLength 풀었을 때의 크기
+     * @param etag 풀린 표현의 강한 ETag (If-Range 비교용)
+     */
+    public void writeDecoded(HttpServletRequest request, HttpServletResponse response, BlobLocation location,
+                             long decodedLength, String contentType, String etag, long lastModified) throws IOException {
+        writeBody(request, response, decodedLength, contentType, etag, lastModified, (start, count, sendfileAllowed) -> {
+            try (FileChannel channel = FileChannel.open(location.path(), StandardOpenOption.READ)) {
+                transferEngine.decode(channel, location.offset(), location.length(), start, count,
+                        response.getOutputStream());
+            }
+        });
+    }
+    
+    /**
+     * 메모리(캐시)에 있는 압축본을 풀어서 응답 작성
+     */
+    public void writeDecoded(HttpServletRequest request, HttpServletResponse response, ByteBuffer content,
+                             long decodedLength, String contentType, String etag, long lastModified) throws IOException {
+        writeBody(request, response, decodedLength, contentType, etag, lastModified,
+                (start, count, sendfileAllowed) -> transferEngine.decode(content, start, count, response.getOutputStream()));
+    }
+    
+    /**
+     * 이 요청의 본문을 커넥터의 sendfile에 넘겼는지 (응답이 끝난 뒤 커넥터가 전송)
+     */
+    public static boolean usesSendfile(HttpServletRequest request) {
+        return request.getAttribute(SENDFILE_FILENAME) != null;
+    }
+    
+    /**
+     * 요청의 Accept-Encoding이 주어진 인코딩을 허용하는지 확인 (q=0은 거부, 명시되지 않으면 * 를 따름)
+     */
+    public static boolean acceptsEncoding(HttpServletRequest request, String encoding) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        if (headers == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        while (headers.hasMoreElements()) {
+            for (String item : headers.nextElement().split(",")) {
+                String[] parts = item.split(";");
+                String coding = parts[0].trim();
+                boolean accepted = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") || param.startsWith("Q=")) {
+                        accepted = !param.substring(2).trim().matches("0(\\.0{0,3})?");
+                    }
+                }
+                if (coding.equalsIgnoreCase(encoding) || coding.equalsIgnoreCase("x-" + encoding)) {
+                    return accepted;
+                }
+                if (coding.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+    
+    private void writeBody(HttpServletRequest request, HttpServletResponse response, long length,
+                           String contentType, String etag, long lastModified, Body body) throws IOException {
+        boolean headOnly = "HEAD".equalsIgnoreCase(request.getMethod());
+        
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (lastModified >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        }
+        
+        List<ByteRange> ranges = resolveRanges(request, length, etag, lastModified);
+        
+        // Range 헤더가 없거나 무시해야 하는 경우 전체 전송
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!headOnly) {
+                body.write(0, length, true);
+            }
+            return;
+        }
+        
+        // 만족할 수 있는 구간이 하나도 없음
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+        
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+            response.setContentLengthLong(range.length());
+            if (!headOnly) {
+                body.write(range.start(), range.length(), true);
+            }
+            return;
+        }
+        
+        writeMultipart(response, body, contentType, length, ranges, headOnly);
+    }
+    
+    /**
+     * 요청된 구간 목록을 계산
+     *
+     * @return 전체 전송이면 null, 만족 불가면 빈 목록
+     */
+    private List<ByteRange> resolveRanges(HttpServletRequest request, long length, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !matchesIfRange(request, etag, lastModified)) {
+            return null;
+        }
+        
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // 형식이 잘못되었거나 구간이 너무 많으면 Range 헤더를 무시 (RFC 7233)
+            return null;
+        }
+        
+        List<ByteRange> ranges = new ArrayList<>();
+        long total = 0;
+        for (HttpRange httpRange : httpRanges) {
+            long start = httpRange.getRangeStart(length);
+            long end = httpRange.getRangeEnd(length);
+            if (start >= length || start > end) {
+                continue;
+            }
+            ranges.add(new ByteRange(start, end));
+            total += end - start + 1;
+        }
+        
+        // 겹치는 구간으로 전체보다 많은 바이트를 요구하면 전체 전송으로 대체
+        if (total > length) {
+            return null;
+        }
+        return ranges;
+    }
+    
+    /**
+     * If-Range 조건 확인
+     * ETag는 강한 비교(약한 ETag는 항상 불일치), 날짜는 초 단위 일치로 인정한다 (RFC 7233)
+     */
+    private boolean matchesIfRange(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        if (ifRange.startsWith("W/") || lastModified < 0) {
+            return false;
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * multipart/byteranges 응답 작성
+     */
+    private void writeMultipart(HttpServletResponse response, Body body, String contentType,
+                                long length, List<ByteRange> ranges, boolean headOnly) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            byte[] partHeader = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(length) + CRLF
+                    + CRLF).getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range.length();
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        response.setContentLengthLong(contentLength + closing.length);
+        
+        if (headOnly) {
+            return;
+        }
+        
+        ServletOutputStream out = response.getOutputStream();
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            out.write(partHeaders.get(i));
+            // 파트 사이에 헤더를 써야 하므로 sendfile은 사용할 수 없음
+            body.write(range.start(), range.length(), false);
+        }
+        out.write(closing);
+    }
+    
+    /**
+     * 객체의 한 구간(객체 기준 start부터 count바이트)을 응답 본문으로 전송
+     * Tomcat이 sendfile을 지원하면 요청 속성만 설정하고 실제 전송은 커넥터에 맡긴다
+     */
+    private void transfer(HttpServletRequest request, HttpServletResponse response, BlobLocation location,
+                          long start, long count, boolean sendfileAllowed) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        
+        if (sendfileAllowed && count >= sendfileMinSize
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            long fileStart = location.offset() + start;
+            request.setAttribute(SENDFILE_FILENAME, location.path().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, fileStart);
+            request.setAttribute(SENDFILE_END, fileStart + count);
+            transferEngine.recordSent(count);
+            return;
+        }
+        
+        // 소켓이 아닌 대상으로의 transferTo와 Channels.newChannel()은 모니터 락 안에서 작은 임시 버퍼로 복사하므로
+        // 풀 버퍼로 파일에서 읽어 응답 스트림에 직접 씀
+        try (FileChannel channel = FileChannel.open(location.path(), StandardOpenOption.READ)) {
+            transferEngine.copy(channel, location.offset() + start, count, response.getOutputStream());
+        }
+    }
+    
+    private void writeBuffer(HttpServletResponse response, ByteBuffer content, long start, long count) throws IOException {
+        ByteBuffer region = content.duplicate();
+        region.position(region.position() + Math.toIntExact(start));
+        region.limit(region.position() + Math.toIntExact(count));
+        transferEngine.write(region, response.getOutputStream());
+    }
+    
+    /**
+     * 응답 본문의 출처 (파일 구간 또는 메모리 버퍼)
+     */
+    @FunctionalInterface
+    private interface Body {
+        
+        /**
+         * 객체 기준 start부터 count바이트를 응답으로 전송
+         */
+        void write(long start, long count, boolean sendfileAllowed) throws IOException;
+    }
+    
+    /**
+     * 닫힌 바이트 구간 [start, end]
+     */
+    private record ByteRange(long start, long end) {
+        
+        long length() {
+            return end - start + 1;
+        }
+        
+        String contentRange(long total) {
+            return "bytes " + start + "-" + end + "/" + total;
+        }
+    }
+}
\ No newline at end of file
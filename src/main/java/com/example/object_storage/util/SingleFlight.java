@@ -0,0 +1,97 @@
+package com.example.object_storage.util;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 키에 대한 동시 작업을 하나로 합치는 유틸리티 (single-flight)
+ * 먼저 들어온 스레드(leader)만 작업을 수행하고, 그동안 들어온 스레드(follower)는 그 결과를 함께 받는다
+ * 결과는 작업이 끝나면 바로 잊히므로 캐시가 아니다
+ *
+ * @param <K> 키 타입
+ * @param <V> 결과 타입
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    
+    /**
+     * 키에 대해 진행 중인 작업이 있으면 그 결과를 기다리고, 없으면 직접 수행
+     */
+    public V execute(K key, Loader<V> loader) throws IOException {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        
+        executions.increment();
+        try {
+            V value = loader.load();
+            future.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+    
+    /**
+     * 진행 중인 작업에서 키를 떼어 냄 (이미 기다리는 스레드는 그 결과를 받고, 이후 요청은 새로 수행)
+     * 원본이 바뀌어 진행 중인 결과를 더 이상 나눠 주면 안 될 때 호출한다
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+    
+    /**
+     * 직접 수행한 작업 수
+     */
+    public long executions() {
+        return executions.sum();
+    }
+    
+    /**
+     * 다른 스레드의 결과를 공유받은 요청 수
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+    
+    private V await(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * 합쳐질 작업
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws IOException;
+    }
+}
\ No newline at end of file
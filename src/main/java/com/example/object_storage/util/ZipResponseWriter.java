@@ -0,0 +1,91 @@
+package com.example.object_storage.util;
+
+import com.example.object_storage.service.ResolvedDownload;
+import com.example.object_storage.storage.BlobLocation;
+import com.example.object_storage.storage.TransferEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 여러 객체를 ZIP으로 묶어 출력 스트림에 바로 쓰는 컴포넌트
+ * 임시 아카이브 파일 없이 객체를 하나씩 순서대로 흘려 보내므로 메모리 사용량은 항목 수에만 비례한다
+ *
+ * - 원본 그대로 저장된 객체(이미 압축된 미디어 등)는 저장된 CRC로 STORED 항목을 쓴다 (재압축 없음)
+ * - 압축 저장된(gzip) 객체는 풀면서 DEFLATED 항목으로 다시 압축한다
+ */
+@Component
+@RequiredArgsConstructor
+public class ZipResponseWriter {
+    
+    private final TransferEngine transferEngine;
+    
+    public void write(List<ResolvedDownload> entries, OutputStream out) throws IOException {
+        Set<String> names = new HashSet<>();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (ResolvedDownload download : entries) {
+            ZipEntry entry = new ZipEntry(uniqueName(names, download.originalFilename()));
+            if (download.lastModified() >= 0) {
+                entry.setTime(download.lastModified());
+            }
+            
+            if (download.contentEncoding() == null && download.crc32() != null) {
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(download.fileSize());
+                entry.setCompressedSize(download.fileSize());
+                entry.setCrc(download.crc32());
+            } else {
+                entry.setMethod(ZipEntry.DEFLATED);
+                // CRC를 모르는 원본 객체는 압축 없이 deflate 블록만 씀 (대부분 압축이 안 되는 내용)
+                zip.setLevel(download.contentEncoding() != null ? Deflater.BEST_SPEED : Deflater.NO_COMPRESSION);
+            }
+            
+            zip.putNextEntry(entry);
+            writeContent(download, zip);
+            zip.closeEntry();
+        }
+        // 응답 스트림은 닫지 않고 중앙 디렉터리까지만 기록
+        zip.finish();
+        zip.flush();
+    }
+    
+    private void writeContent(ResolvedDownload download, ZipOutputStream zip) throws IOException {
+        BlobLocation location = download.location();
+        try (FileChannel channel = FileChannel.open(location.path(), StandardOpenOption.READ)) {
+            if (download.contentEncoding() != null) {
+                transferEngine.decode(channel, location.offset(), location.length(), zip);
+            } else {
+                transferEngine.copy(channel, location.offset(), location.length(), zip);
+            }
+        }
+    }
+    
+    /**
+     * 경로 구분자를 제거하고, 같은 이름이 이미 있으면 "이름 (n).확장자"로 바꿈
+     */
+    private static String uniqueName(Set<String> names, String originalFilename) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(String.valueOf(originalFilename)));
+        if (name == null || name.isBlank() || name.equals("..")) {
+            name = "file";
+        }
+        
+        String candidate = name;
+        String extension = StringUtils.getFilenameExtension(name);
+        String base = extension != null ? name.substring(0, name.length() - extension.length() - 1) : name;
+        for (int n = 1; !names.add(candidate); n++) {
+            candidate = base + " (" + n + ")" + (extension != null ? "." + extension : "");
+        }
+        return candidate;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.object_storage;
+
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+
+/**
+ * 저장소 동작 테스트의 공통 설정
+ * 임시 업로드 디렉토리와 별도 메모리 DB를 쓰고, 하위 클래스끼리는 같은 애플리케이션 컨텍스트를 공유한다
+ * (테스트마다 새 사용자를 만들어 서로의 데이터가 섞이지 않게 함)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class StorageTestSupport {
+    
+    protected static final Path UPLOAD_DIR = createUploadDir();
+    
+    @Autowired
+    protected UserRepository userRepository;
+    
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.dir", () -> UPLOAD_DIR.toString());
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:storage-test;DB_CLOSE_DELAY=-1");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("logging.level.org.springframework.jdbc.core", () -> "INFO");
+    }
+    
+    protected User newUser() {
+        String name = "test-" + UUID.randomUUID().toString().substring(0, 12);
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("test-password");
+        user.setEmail(name + "@test.local");
+        return userRepository.save(user);
+    }
+    
+    protected static MockMultipartFile file(String name, byte[] content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content);
+    }
+    
+    /**
+     * 시드가 같으면 같은 내용 (중복 제거 테스트에서 같은 내용을 다시 만들 때 사용)
+     */
+    protected static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+    
+    /**
+     * 인증 필터를 거친 것처럼 요청의 principal을 설정
+     */
+    protected static RequestPostProcessor as(User user) {
+        return authentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+    
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("object-storage-test-").toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * POST /files/archive의 ZIP 스트림을 ZipInputStream으로 다시 읽어 항목 방식과 내용을 확인
+ * 원본 그대로 저장된 객체는 STORED, 압축 저장된 객체는 풀어서 DEFLATED로 다시 압축된다
+ */
+class ArchiveDownloadTests extends StorageTestSupport {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Test
+    void rawObjectsAreStoredAndCompressedObjectsAreDeflated() throws Exception {
+        User owner = newUser();
+        byte[] media = randomBytes(100 * 1024, 430);
+        // 16진수 텍스트는 압축본(gzip)으로 저장됨
+        byte[] text = HexFormat.of().formatHex(randomBytes(50 * 1024, 431)).getBytes(StandardCharsets.US_ASCII);
+        byte[] shared = randomBytes(10 * 1024, 432);
+        FileUploadResponse mediaFile = fileStorageService.uploadFile(file("photo.jpg", media), owner);
+        FileUploadResponse textFile = fileStorageService.uploadFile(file("notes.txt", text), owner);
+        FileUploadResponse sameName = fileStorageService.uploadFile(file("photo.jpg", shared), owner);
+        
+        User other = newUser();
+        FileUploadResponse linked = fileStorageService.uploadFile(file("linked.bin", shared), other);
+        fileStorageService.updateFilePermission(linked.getFileId(), other, FilePermission.PUBLIC, null);
+        
+        MockHttpServletResponse response = archive(owner, "{\"fileIds\":[" + mediaFile.getFileId() + ","
+                + textFile.getFileId() + "," + sameName.getFileId() + "],\"downloadLinks\":[\""
+                + linked.getDownloadLink() + "\"]}");
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo("application/zip");
+        
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), entry);
+                contents.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        
+        // 요청 순서대로, 같은 이름은 번호를 붙여서
+        assertThat(entries.keySet()).containsExactly("photo.jpg", "notes.txt", "photo (1).jpg", "linked.bin");
+        assertThat(contents.get("photo.jpg")).isEqualTo(media);
+        assertThat(contents.get("notes.txt")).isEqualTo(text);
+        assertThat(contents.get("photo (1).jpg")).isEqualTo(shared);
+        assertThat(contents.get("linked.bin")).isEqualTo(shared);
+        
+        // 원본 객체는 저장된 CRC로 STORED (로컬 헤더에 크기와 CRC가 그대로 있음)
+        ZipEntry stored = entries.get("photo.jpg");
+        assertThat(stored.getMethod()).isEqualTo(ZipEntry.STORED);
+        assertThat(stored.getSize()).isEqualTo(media.length);
+        assertThat(stored.getCrc()).isEqualTo(crc(media));
+        assertThat(entries.get("linked.bin").getMethod()).isEqualTo(ZipEntry.STORED);
+        
+        // 압축 저장된 객체는 gzip 그대로가 아니라 풀어서 다시 deflate
+        assertThat(entries.get("notes.txt").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+    }
+    
+    @Test
+    void otherUsersFileIdsAreNotArchived() throws Exception {
+        User owner = newUser();
+        User other = newUser();
+        FileUploadResponse mine = fileStorageService.uploadFile(file("mine.bin", randomBytes(1024, 433)), owner);
+        FileUploadResponse foreign = fileStorageService.uploadFile(file("foreign.bin", randomBytes(1024, 434)), other);
+        
+        MockHttpServletResponse response = archive(owner,
+                "{\"fileIds\":[" + mine.getFileId() + "," + foreign.getFileId() + "]}");
+        
+        // 다른 사용자의 id가 섞이면 ZIP을 쓰기 전에 거부하므로 어떤 항목도 나가지 않음
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getContentAsString()).contains("File not found: " + foreign.getFileId());
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(zip.getNextEntry()).isNull();
+        }
+    }
+    
+    private MockHttpServletResponse archive(User user, String body) throws Exception {
+        return mockMvc.perform(post("/files/archive").with(as(user))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+    }
+    
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * /download/{linkId}의 If-None-Match 처리
+ * 현재 표현의 ETag면 본문 없이 304, 비밀번호 보호 링크는 비밀번호를 확인한 뒤에만 304
+ */
+class DownloadConditionalTests extends StorageTestSupport {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Test
+    void currentEtagReturnsNotModifiedWithoutBody() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 420);
+        String link = upload(content, FilePermission.PUBLIC, null);
+        String etag = download(link, null, null, null).getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull().doesNotContain("-gzip");
+        
+        MockHttpServletResponse response = download(link, null, null, etag);
+        
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("public");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    
+    @Test
+    void staleEtagSendsWholeBody() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 421);
+        String link = upload(content, FilePermission.PUBLIC, null);
+        
+        MockHttpServletResponse response = download(link, null, null, "\"stale\"");
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+    
+    @Test
+    void gzipEtagMatchesOnlyGzipRepresentation() throws Exception {
+        // 16진수 텍스트는 압축본으로 저장됨
+        byte[] content = HexFormat.of().formatHex(randomBytes(50 * 1024, 422)).getBytes(StandardCharsets.US_ASCII);
+        String link = upload(content, FilePermission.PUBLIC, null);
+        String gzipEtag = download(link, "gzip", null, null).getHeader(HttpHeaders.ETAG);
+        assertThat(gzipEtag).endsWith("-gzip\"");
+        
+        MockHttpServletResponse notModified = download(link, "gzip", null, gzipEtag);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo(gzipEtag);
+        assertThat(notModified.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+        
+        // 풀린 표현을 받는 클라이언트에게 gzip ETag는 다른 표현이므로 전체 본문
+        MockHttpServletResponse identity = download(link, null, null, gzipEtag);
+        assertThat(identity.getStatus()).isEqualTo(200);
+        assertThat(identity.getHeader(HttpHeaders.ETAG)).doesNotContain("-gzip");
+        assertThat(identity.getContentAsByteArray()).isEqualTo(content);
+    }
+    
+    @Test
+    void passwordProtectedLinkChecksPasswordBeforeNotModified() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 423);
+        String link = upload(content, FilePermission.PASSWORD_PROTECTED, "secret");
+        String etag = download(link, null, "secret", null).getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        
+        // ETag를 알아도 비밀번호 없이는 304가 아니라 403
+        for (String password : new String[]{null, "wrong"}) {
+            MockHttpServletResponse response = download(link, null, password, etag);
+            
+            assertThat(response.getStatus()).as(String.valueOf(password)).isEqualTo(403);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+            assertThat(response.getContentAsByteArray()).isEmpty();
+        }
+        
+        MockHttpServletResponse response = download(link, null, "secret", etag);
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("no-cache").contains("private");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    
+    private String upload(byte[] content, FilePermission permission, String password) throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("conditional.txt", content), owner);
+        fileStorageService.updateFilePermission(uploaded.getFileId(), owner, permission, password);
+        return uploaded.getDownloadLink();
+    }
+    
+    private MockHttpServletResponse download(String link, String acceptEncoding, String password, String ifNoneMatch)
+            throws Exception {
+        MockHttpServletRequestBuilder request = get("/download/{linkId}", link);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (password != null) {
+            request.param("password", password);
+        }
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
\ No newline at end of file
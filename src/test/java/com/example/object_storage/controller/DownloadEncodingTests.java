@@ -0,0 +1,142 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 압축 저장된 객체의 인코딩 협상 (gzip / identity, Vary, 표현별 ETag)과 풀린 바이트 기준 Range
+ * 16진수 텍스트는 절반 가까이 줄어들므로 압축본으로 저장된다
+ */
+class DownloadEncodingTests extends StorageTestSupport {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Test
+    void gzipClientReceivesStoredEncoding() throws Exception {
+        byte[] content = text(100 * 1024, 300);
+        FileUploadResponse uploaded = publicFile(content);
+        
+        MockHttpServletResponse response = download(uploaded.getDownloadLink(), "gzip", null, null);
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+        assertThat(response.getContentAsByteArray().length).isLessThan(content.length);
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(content);
+    }
+    
+    @Test
+    void identityClientReceivesDecodedContent() throws Exception {
+        byte[] content = text(100 * 1024, 301);
+        FileUploadResponse uploaded = publicFile(content);
+        
+        MockHttpServletResponse response = download(uploaded.getDownloadLink(), null, null, null);
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).doesNotContain("-gzip");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        
+        // q=0은 거부로 보고 풀어서 보냄
+        MockHttpServletResponse refused = download(uploaded.getDownloadLink(), "gzip;q=0", null, null);
+        assertThat(refused.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(refused.getContentAsByteArray()).isEqualTo(content);
+    }
+    
+    @Test
+    void identityRangeOfCachedObjectIsServedFromDecodedBytes() throws Exception {
+        byte[] content = text(100 * 1024, 302);
+        FileUploadResponse uploaded = publicFile(content);
+        
+        MockHttpServletResponse response = download(uploaded.getDownloadLink(), null, "bytes=50000-50999", null);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 50000-50999/" + content.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 50000, 51000));
+    }
+    
+    @Test
+    void identityRangeOfUncachedObjectIsServedFromDecodedBytes() throws Exception {
+        // 압축본도 캐시 한도(1MB)를 넘도록 큼
+        byte[] content = text(4 * 1024 * 1024, 303);
+        FileUploadResponse uploaded = publicFile(content);
+        
+        MockHttpServletResponse response = download(uploaded.getDownloadLink(), null, "bytes=-100", null);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(content, content.length - 100, content.length));
+    }
+    
+    @Test
+    void ifRangeWithOtherRepresentationEtagSendsWholeBody() throws Exception {
+        byte[] content = text(100 * 1024, 304);
+        FileUploadResponse uploaded = publicFile(content);
+        String gzipEtag = download(uploaded.getDownloadLink(), "gzip", null, null).getHeader(HttpHeaders.ETAG);
+        
+        // gzip 표현의 ETag로는 풀린 표현의 구간을 받을 수 없음
+        MockHttpServletResponse response = download(uploaded.getDownloadLink(), null, "bytes=0-99", gzipEtag);
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+    
+    private FileUploadResponse publicFile(byte[] content) throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("text.txt", content), owner);
+        fileStorageService.updateFilePermission(uploaded.getFileId(), owner, FilePermission.PUBLIC, null);
+        return uploaded;
+    }
+    
+    private MockHttpServletResponse download(String link, String acceptEncoding, String range, String ifRange)
+            throws Exception {
+        MockHttpServletRequestBuilder request = get("/download/{linkId}", link);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.header(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+    
+    private static byte[] text(int size, long seed) {
+        return HexFormat.of().formatHex(randomBytes(size / 2, seed)).getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    private static byte[] gunzip(byte[] encoded) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+            return in.readAllBytes();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.example.object_storage.controller;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.service.FileStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * /download/{linkId}의 Range / If-Range / 416 처리
+ * 작은 객체는 메모리 캐시에서, 캐시 한도(1MB)를 넘는 객체는 파일에서 구간을 읽는다
+ */
+class DownloadRangeTests extends StorageTestSupport {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void withoutRangeSendsWholeBody() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 23);
+        String link = publicFile(content);
+        
+        MockHttpServletResponse response = download(link, null, null);
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+    
+    @Test
+    void singleRangeSendsPartialContent() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 24);
+        String link = publicFile(content);
+        
+        MockHttpServletResponse response = download(link, "bytes=100-199", null);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/" + content.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+    }
+    
+    @Test
+    void suffixRangeSendsLastBytes() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 25);
+        String link = publicFile(content);
+        
+        MockHttpServletResponse response = download(link, "bytes=-50", null);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(content, content.length - 50, content.length));
+    }
+    
+    @Test
+    void rangeOfUncachedObjectIsReadFromFile() throws Exception {
+        byte[] content = randomBytes(2 * 1024 * 1024, 26);
+        String link = publicFile(content);
+        
+        MockHttpServletResponse response = download(link, "bytes=1048000-1049999", null);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 1048000-1049999/" + content.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 1048000, 1050000));
+    }
+    
+    @Test
+    void multipleRangesSendMultipartByteranges() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 27);
+        String link = publicFile(content);
+        
+        MockHttpServletResponse response = download(link, "bytes=0-9,1000-1009", null);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.getContentAsByteArray()).hasSize((int) response.getContentLengthLong());
+        String body = response.getContentAsString(StandardCharsets.ISO_8859_1);
+        assertThat(body).contains("Content-Range: bytes 0-9/" + content.length)
+                .contains("Content-Range: bytes 1000-1009/" + content.length);
+    }
+    
+    @Test
+    void unsatisfiableRangeIsRejectedWith416() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 28);
+        String link = publicFile(content);
+        
+        MockHttpServletResponse response = download(link, "bytes=" + content.length + "-", null);
+        
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + content.length);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+    
+    @Test
+    void ifRangeWithCurrentEtagSendsRange() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 29);
+        String link = publicFile(content);
+        String etag = download(link, null, null).getHeader(HttpHeaders.ETAG);
+        
+        MockHttpServletResponse response = download(link, "bytes=0-99", etag);
+        
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 100));
+    }
+    
+    @Test
+    void ifRangeWithOtherValidatorSendsWholeBody() throws Exception {
+        byte[] content = randomBytes(100 * 1024, 30);
+        String link = publicFile(content);
+        String etag = download(link, null, null).getHeader(HttpHeaders.ETAG);
+        
+        // 다른 ETag, 약한 ETag, 다른 날짜는 모두 전체 본문으로 응답
+        for (String ifRange : new String[]{"\"other\"", "W/" + etag, "Mon, 01 Jan 2001 00:00:00 GMT"}) {
+            MockHttpServletResponse response = download(link, "bytes=0-99", ifRange);
+            
+            assertThat(response.getStatus()).as(ifRange).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        }
+    }
+    
+    @Test
+    void sendfileTransferIsNotTimedAsDiskPhase() throws Exception {
+        // 캐시 한도를 넘어 파일에서 전송되는 객체
+        byte[] content = randomBytes(2 * 1024 * 1024, 440);
+        String link = publicFile(content);
+        double sendfile = transfers("sendfile");
+        double copy = transfers("copy");
+        long disk = diskPhases();
+        
+        MockHttpServletResponse response = mockMvc.perform(get("/download/{linkId}", link)
+                        .requestAttr("org.apache.tomcat.sendfile.support", true))
+                .andReturn().getResponse();
+        
+        // 본문은 커넥터가 보내므로 응답은 비어 있고 disk 단계 시간도 남기지 않음
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(transfers("sendfile")).isEqualTo(sendfile + 1);
+        assertThat(diskPhases()).isEqualTo(disk);
+        
+        download(link, null, null);
+        assertThat(transfers("copy")).isEqualTo(copy + 1);
+        assertThat(diskPhases()).isEqualTo(disk + 1);
+    }
+    
+    private double transfers(String mode) {
+        return meterRegistry.find("storage.operation.transfers")
+                .tags("operation", "download", "mode", mode)
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+    
+    private long diskPhases() {
+        return meterRegistry.find("storage.operation.phase")
+                .tags("operation", "download", "phase", "disk")
+                .timers().stream().mapToLong(timer -> timer.count()).sum();
+    }
+    
+    private String publicFile(byte[] content) throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("range.bin", content), owner);
+        fileStorageService.updateFilePermission(uploaded.getFileId(), owner, FilePermission.PUBLIC, null);
+        return uploaded.getDownloadLink();
+    }
+    
+    private MockHttpServletResponse download(String link, String range, String ifRange) throws Exception {
+        MockHttpServletRequestBuilder request = get("/download/{linkId}", link);
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.header(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
\ No newline at end of file
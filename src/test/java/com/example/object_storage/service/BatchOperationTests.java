@@ -0,0 +1,93 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.BatchDeleteItem;
+import com.example.object_storage.dto.BatchResponse;
+import com.example.object_storage.dto.BatchUploadItem;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.FileMetadataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 묶음 업로드/삭제에서 일부 항목이 실패해도 나머지는 처리되고, 결과가 요청 순서대로 항목별로 돌아오는지 확인
+ */
+class BatchOperationTests extends StorageTestSupport {
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private FileMetadataRepository fileMetadataRepository;
+    
+    @Autowired
+    private QuotaService quotaService;
+    
+    @Test
+    void uploadOverQuotaFailsOnlyThatFile() throws Exception {
+        User owner = newUser();
+        owner.setQuotaBytes(4L * 1024);
+        userRepository.save(owner);
+        
+        List<MultipartFile> files = List.of(
+                file("one.bin", randomBytes(1024, 90)),
+                file("two.bin", randomBytes(1024, 91)),
+                file("too-big.bin", randomBytes(8 * 1024, 92)),
+                file("three.bin", randomBytes(1024, 93)));
+        
+        BatchResponse<BatchUploadItem> response = fileStorageService.uploadFiles(files, owner);
+        
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems()).extracting(BatchUploadItem::getOriginalFilename)
+                .containsExactly("one.bin", "two.bin", "too-big.bin", "three.bin");
+        
+        BatchUploadItem failed = response.getItems().get(2);
+        assertThat(failed.getFile()).isNull();
+        assertThat(failed.getError()).isEqualTo(QuotaService.QUOTA_EXCEEDED);
+        for (int i : new int[]{0, 1, 3}) {
+            FileUploadResponse uploaded = response.getItems().get(i).getFile();
+            assertThat(response.getItems().get(i).getError()).isNull();
+            assertThat(fileMetadataRepository.findById(uploaded.getFileId())).isPresent();
+        }
+        
+        // 실패한 파일의 예약은 되돌려지고 저장된 세 파일만 사용량에 남음
+        assertThat(quotaService.status(owner).usedBytes()).isEqualTo(3L * 1024);
+        assertThat(quotaService.status(owner).usedObjects()).isEqualTo(3);
+    }
+    
+    @Test
+    void deleteSkipsMissingAndForeignFiles() throws Exception {
+        User owner = newUser();
+        User other = newUser();
+        FileUploadResponse first = fileStorageService.uploadFile(file("a.bin", randomBytes(1024, 94)), owner);
+        FileUploadResponse second = fileStorageService.uploadFile(file("b.bin", randomBytes(1024, 95)), owner);
+        FileUploadResponse foreign = fileStorageService.uploadFile(file("c.bin", randomBytes(1024, 96)), other);
+        long missing = Long.MAX_VALUE;
+        
+        BatchResponse<BatchDeleteItem> response = fileStorageService.deleteFiles(
+                Arrays.asList(first.getFileId(), foreign.getFileId(), missing, second.getFileId(), first.getFileId()), owner);
+        
+        // 중복 id는 한 번만 처리
+        assertThat(response.getItems()).extracting(BatchDeleteItem::getFileId)
+                .containsExactly(first.getFileId(), foreign.getFileId(), missing, second.getFileId());
+        assertThat(response.getItems()).extracting(BatchDeleteItem::isDeleted)
+                .containsExactly(true, false, false, true);
+        assertThat(response.getItems().get(1).getError()).isEqualTo("File not found");
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(2);
+        
+        assertThat(fileMetadataRepository.findById(first.getFileId())).isEmpty();
+        assertThat(fileMetadataRepository.findById(second.getFileId())).isEmpty();
+        assertThat(fileMetadataRepository.findById(foreign.getFileId())).isPresent();
+        assertThat(quotaService.status(owner).usedObjects()).isZero();
+        assertThat(quotaService.status(other).usedObjects()).isEqualTo(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.BlobRepository;
+import com.example.object_storage.repository.FileMetadataRepository;
+import com.example.object_storage.storage.StorageLayout;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 내용의 업로드가 Blob 하나를 공유하고, 참조 수가 삭제마다 정확히 한 번씩 내려가는지 확인
+ */
+class BlobDeduplicationTests extends StorageTestSupport {
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private FileMetadataRepository fileMetadataRepository;
+    
+    @Autowired
+    private BlobRepository blobRepository;
+    
+    @Autowired
+    private StorageLayout storageLayout;
+    
+    @Test
+    void identicalUploadsShareOneBlob() throws Exception {
+        User alice = newUser();
+        User bob = newUser();
+        byte[] content = randomBytes(200 * 1024, 1);
+        
+        FileUploadResponse first = fileStorageService.uploadFile(file("a.bin", content), alice);
+        FileUploadResponse second = fileStorageService.uploadFile(file("b.bin", content), bob);
+        String hash = blobHash(first);
+        
+        assertThat(blobHash(second)).isEqualTo(hash);
+        assertThat(refCount(hash)).isEqualTo(2);
+        
+        assertThat(fileStorageService.deleteFile(first.getFileId(), alice)).isTrue();
+        assertThat(refCount(hash)).isEqualTo(1);
+        
+        assertThat(fileStorageService.deleteFile(second.getFileId(), bob)).isTrue();
+        assertThat(blobRepository.findById(hash)).isEmpty();
+        assertThat(storageLayout.locate(hash)).doesNotExist();
+    }
+    
+    @Test
+    void concurrentDeletesOfSameFileReleaseOneReference() throws Exception {
+        User alice = newUser();
+        User bob = newUser();
+        byte[] content = randomBytes(200 * 1024, 2);
+        
+        FileUploadResponse aliceFile = fileStorageService.uploadFile(file("a.bin", content), alice);
+        FileUploadResponse bobFile = fileStorageService.uploadFile(file("b.bin", content), bob);
+        String hash = blobHash(aliceFile);
+        
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<Boolean> delete = () -> {
+                    start.await();
+                    return fileStorageService.deleteFile(aliceFile.getFileId(), alice);
+                };
+                results.add(executor.submit(delete));
+            }
+            start.countDown();
+            
+            int deleted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    deleted++;
+                }
+            }
+            assertThat(deleted).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // bob의 참조와 내용은 그대로 남아야 함
+        assertThat(refCount(hash)).isEqualTo(1);
+        assertThat(fileMetadataRepository.findById(bobFile.getFileId())).isPresent();
+        assertThat(storageLayout.locate(hash)).exists();
+    }
+    
+    private String blobHash(FileUploadResponse response) {
+        return fileMetadataRepository.findById(response.getFileId()).orElseThrow().getBlobHash();
+    }
+    
+    private long refCount(String hash) {
+        return blobRepository.findById(hash).map(Blob::getRefCount).orElse(0L);
+    }
+}
\ No newline at end of file
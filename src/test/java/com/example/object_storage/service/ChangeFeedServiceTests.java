@@ -0,0 +1,178 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileChangeDto;
+import com.example.object_storage.dto.FileChangePage;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.FileChangeType;
+import com.example.object_storage.entity.FilePermission;
+import com.example.object_storage.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 변경 피드의 순서, 커서 페이지, long-poll 전달, 정리된 커서의 410 응답
+ * 테스트마다 since 없이 받은 현재 커서에서 시작한다 (다른 테스트의 변경이나 정리와 섞이지 않도록)
+ */
+class ChangeFeedServiceTests extends StorageTestSupport {
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void changesArePagedInTheOrderTheyHappened() throws Exception {
+        User owner = newUser();
+        long start = currentCursor(owner);
+        
+        FileUploadResponse first = upload(owner, "a.bin", 60);
+        FileUploadResponse second = upload(owner, "b.bin", 61);
+        fileStorageService.updateFilePermission(first.getFileId(), owner, FilePermission.PUBLIC, null);
+        fileStorageService.deleteFile(second.getFileId(), owner);
+        
+        List<FileChangeDto> changes = new ArrayList<>();
+        long cursor = start;
+        FileChangePage page;
+        do {
+            page = changeFeedService.getChanges(owner.getId(), cursor, 3);
+            changes.addAll(page.getChanges());
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+        
+        assertThat(changes).extracting(FileChangeDto::getType).containsExactly(
+                FileChangeType.UPLOADED, FileChangeType.UPLOADED, FileChangeType.PERMISSION_CHANGED, FileChangeType.DELETED);
+        assertThat(changes).extracting(FileChangeDto::getFileId).containsExactly(
+                first.getFileId(), second.getFileId(), first.getFileId(), second.getFileId());
+        assertThat(changes).extracting(FileChangeDto::getChangeId).isSorted().doesNotHaveDuplicates();
+        assertThat(cursor).isEqualTo(changes.get(changes.size() - 1).getChangeId());
+        assertThat(changeFeedService.getChanges(owner.getId(), cursor, 3).getChanges()).isEmpty();
+    }
+    
+    @Test
+    void concurrentUploadsOfOneUserAreAllVisibleAfterTheCursor() throws Exception {
+        User owner = newUser();
+        long start = currentCursor(owner);
+        
+        int threads = 8;
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Long> uploaded = new ArrayList<>();
+        try {
+            List<Future<FileUploadResponse>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                Callable<FileUploadResponse> task = () -> {
+                    ready.await();
+                    return upload(owner, "c" + index + ".bin", 70 + index);
+                };
+                results.add(executor.submit(task));
+            }
+            ready.countDown();
+            for (Future<FileUploadResponse> result : results) {
+                uploaded.add(result.get().getFileId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        FileChangePage page = changeFeedService.getChanges(owner.getId(), start, 100);
+        assertThat(page.getChanges()).extracting(FileChangeDto::getFileId).containsExactlyInAnyOrderElementsOf(uploaded);
+        assertThat(page.getChanges()).extracting(FileChangeDto::getChangeId).isSorted();
+    }
+    
+    @Test
+    void otherUsersDoNotSeeTheChanges() throws Exception {
+        User owner = newUser();
+        User other = newUser();
+        long otherStart = currentCursor(other);
+        
+        upload(owner, "private.bin", 80);
+        
+        assertThat(changeFeedService.getChanges(other.getId(), otherStart, 100).getChanges()).isEmpty();
+    }
+    
+    @Test
+    void waitingPollIsCompletedByLaterChange() throws Exception {
+        User owner = newUser();
+        long start = currentCursor(owner);
+        
+        CompletableFuture<FileChangePage> delivered = new CompletableFuture<>();
+        Runnable cancel = changeFeedService.awaitChanges(owner.getId(), start, 10, delivered::complete);
+        try {
+            assertThat(delivered).isNotDone();
+            FileUploadResponse uploaded = upload(owner, "late.bin", 81);
+            
+            FileChangePage page = delivered.get(10, TimeUnit.SECONDS);
+            assertThat(page.getChanges()).extracting(FileChangeDto::getFileId).containsExactly(uploaded.getFileId());
+        } finally {
+            cancel.run();
+        }
+    }
+    
+    @Test
+    void prunedCursorIsAnsweredWithGone() throws Exception {
+        User owner = newUser();
+        long start = currentCursor(owner);
+        upload(owner, "old.bin", 82);
+        upload(owner, "older.bin", 83);
+        
+        Duration retention = (Duration) ReflectionTestUtils.getField(changeFeedService, "retention");
+        try {
+            // 지금 이전의 변경을 모두 정리
+            Thread.sleep(5);
+            ReflectionTestUtils.setField(changeFeedService, "retention", Duration.ZERO);
+            changeFeedService.prune();
+        } finally {
+            ReflectionTestUtils.setField(changeFeedService, "retention", retention);
+        }
+        
+        mockMvc.perform(get("/changes").param("since", String.valueOf(start)).with(as(owner)))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").value("Change cursor expired"));
+        MvcResult poll = mockMvc.perform(get("/changes/poll").param("since", String.valueOf(start)).with(as(owner)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(poll))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/changes/stream").param("since", String.valueOf(start)).with(as(owner)))
+                .andExpect(status().isGone());
+        
+        // 변경이 모두 정리된 사용자도 새로 받은 커서로는 다시 이어 받을 수 있음
+        mockMvc.perform(get("/changes").param("since", String.valueOf(currentCursor(owner))).with(as(owner)))
+                .andExpect(status().isOk());
+    }
+    
+    private long currentCursor(User owner) {
+        return changeFeedService.getChanges(owner.getId(), null, 1).getCursor();
+    }
+    
+    private FileUploadResponse upload(User owner, String name, int seed) throws Exception {
+        return fileStorageService.uploadFile(file(name, randomBytes(1024, seed)), owner);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileListPage;
+import com.example.object_storage.dto.FileListQuery;
+import com.example.object_storage.dto.FileMetadataDto;
+import com.example.object_storage.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 파일 목록 keyset 페이지: 정렬 키가 같은 행은 id로 이어지고, 페이지 사이의 변경이 결과를 밀지 않는지 확인
+ */
+class FileListPagingTests extends StorageTestSupport {
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    private int seed = 40;
+    
+    @Test
+    void sizePagesVisitEveryFileOnceInOrder() throws Exception {
+        User owner = newUser();
+        int[] sizes = {300, 100, 200, 100, 300, 100, 200};
+        for (int i = 0; i < sizes.length; i++) {
+            upload(owner, "f" + i + ".bin", sizes[i]);
+        }
+        
+        List<FileMetadataDto> all = collect(owner, query("size", "asc", 3));
+        
+        assertThat(all).hasSize(sizes.length);
+        assertThat(all).extracting(FileMetadataDto::getId).doesNotHaveDuplicates();
+        assertThat(all).isSortedAccordingTo(Comparator.comparing(FileMetadataDto::getFileSize)
+                .thenComparing(FileMetadataDto::getId));
+    }
+    
+    @Test
+    void namePagesHandleDuplicateNamesAndSeparatorInName() throws Exception {
+        User owner = newUser();
+        for (String name : new String[]{"b.txt", "a|b.txt", "b.txt", "c.txt", "a|b.txt"}) {
+            upload(owner, name, 64);
+        }
+        
+        List<FileMetadataDto> all = collect(owner, query("name", "desc", 2));
+        
+        assertThat(all).extracting(FileMetadataDto::getOriginalFilename)
+                .containsExactly("c.txt", "b.txt", "b.txt", "a|b.txt", "a|b.txt");
+        assertThat(all).isSortedAccordingTo(Comparator.comparing(FileMetadataDto::getOriginalFilename)
+                .thenComparing(FileMetadataDto::getId).reversed());
+    }
+    
+    @Test
+    void uploadBetweenPagesDoesNotShiftNextPage() throws Exception {
+        User owner = newUser();
+        for (int i = 0; i < 4; i++) {
+            upload(owner, "old-" + i + ".bin", 64);
+        }
+        
+        FileListQuery query = query("uploadTime", "desc", 2);
+        FileListPage first = fileStorageService.getUserFiles(owner, query);
+        upload(owner, "new.bin", 64);
+        
+        query.setCursor(first.getNextCursor());
+        FileListPage second = fileStorageService.getUserFiles(owner, query);
+        
+        // 새 파일은 커서보다 앞에 있으므로 다음 페이지에 끼어들지 않고, 앞 페이지 항목도 반복되지 않음
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(second.getItems()).extracting(FileMetadataDto::getOriginalFilename).doesNotContain("new.bin");
+        assertThat(second.getItems()).extracting(FileMetadataDto::getId)
+                .doesNotContainAnyElementsOf(first.getItems().stream().map(FileMetadataDto::getId).toList());
+        assertThat(second.getNextCursor()).isNull();
+    }
+    
+    @Test
+    void invalidCursorAndSortAreRejected() {
+        User owner = newUser();
+        
+        FileListQuery badCursor = query("name", "asc", 10);
+        badCursor.setCursor("not-a-cursor");
+        assertThatThrownBy(() -> fileStorageService.getUserFiles(owner, badCursor))
+                .hasMessage("Invalid cursor");
+        
+        assertThatThrownBy(() -> fileStorageService.getUserFiles(owner, query("owner", "asc", 10)))
+                .hasMessage("Invalid sort: owner");
+    }
+    
+    private void upload(User owner, String name, int size) throws Exception {
+        fileStorageService.uploadFile(file(name, randomBytes(size, seed++)), owner);
+    }
+    
+    private static FileListQuery query(String sort, String order, int limit) {
+        FileListQuery query = new FileListQuery();
+        query.setSort(sort);
+        query.setOrder(order);
+        query.setLimit(limit);
+        return query;
+    }
+    
+    private List<FileMetadataDto> collect(User owner, FileListQuery query) {
+        List<FileMetadataDto> all = new ArrayList<>();
+        FileListPage page;
+        do {
+            page = fileStorageService.getUserFiles(owner, query);
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(query.getLimit());
+            all.addAll(page.getItems());
+            query.setCursor(page.getNextCursor());
+        } while (page.getNextCursor() != null);
+        return all;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.dto.MultipartInitiateRequest;
+import com.example.object_storage.dto.MultipartUploadDto;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.FileMetadataRepository;
+import com.example.object_storage.storage.BlobStore;
+import com.example.object_storage.storage.HotObjectCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * multipart 업로드: 순서와 무관한/동시 파트 기록, 파트 크기 검증, 완료 시 실제 크기로 자르기, 취소/만료 정리
+ */
+class MultipartUploadServiceTests extends StorageTestSupport {
+    
+    private static final int PART_SIZE = 64 * 1024;
+    
+    @Autowired
+    private MultipartUploadService multipartUploadService;
+    
+    @Autowired
+    private FileMetadataRepository fileMetadataRepository;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private QuotaService quotaService;
+    
+    @Test
+    void partsUploadedOutOfOrderAreAssembledInOrder() throws Exception {
+        User owner = newUser();
+        byte[] content = randomBytes(3 * PART_SIZE + 1000, 400);
+        
+        MultipartUploadDto upload = multipartUploadService.initiate(request((long) content.length), owner);
+        for (int partNumber : new int[]{3, 1, 4, 2}) {
+            uploadPart(upload, partNumber, part(content, partNumber), owner);
+        }
+        
+        FileUploadResponse response = multipartUploadService.complete(upload.getUploadId(), owner);
+        
+        assertThat(response.getFileSize()).isEqualTo((long) content.length);
+        assertThat(read(response)).isEqualTo(content);
+        assertThat(stagingFile(upload)).doesNotExist();
+    }
+    
+    @Test
+    void partsUploadedInParallelAreAssembled() throws Exception {
+        User owner = newUser();
+        int parts = 8;
+        byte[] content = randomBytes((parts - 1) * PART_SIZE + 5000, 401);
+        MultipartUploadDto upload = multipartUploadService.initiate(request(null), owner);
+        
+        CountDownLatch ready = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(parts);
+        try {
+            List<Future<MultipartUploadDto>> results = new ArrayList<>();
+            for (int i = 1; i <= parts; i++) {
+                int partNumber = i;
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    return uploadPart(upload, partNumber, part(content, partNumber), owner);
+                }));
+            }
+            ready.countDown();
+            for (Future<MultipartUploadDto> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(multipartUploadService.getStatus(upload.getUploadId(), owner).getParts()).hasSize(parts);
+        FileUploadResponse response = multipartUploadService.complete(upload.getUploadId(), owner);
+        assertThat(read(response)).isEqualTo(content);
+    }
+    
+    @Test
+    void completeTruncatesStagingFileToUploadedSize() throws Exception {
+        User owner = newUser();
+        byte[] content = randomBytes(2 * PART_SIZE + 1000, 402);
+        MultipartUploadDto upload = multipartUploadService.initiate(request(null), owner);
+        
+        uploadPart(upload, 1, part(content, 1), owner);
+        uploadPart(upload, 2, part(content, 2), owner);
+        // 마지막 파트를 처음엔 가득 채웠다가 짧게 다시 올림 (스테이징 파일은 3 * PART_SIZE로 남아 있음)
+        uploadPart(upload, 3, randomBytes(PART_SIZE, 403), owner);
+        uploadPart(upload, 3, part(content, 3), owner);
+        assertThat(Files.size(stagingFile(upload))).isEqualTo(3L * PART_SIZE);
+        
+        FileUploadResponse response = multipartUploadService.complete(upload.getUploadId(), owner);
+        
+        assertThat(response.getFileSize()).isEqualTo((long) content.length);
+        assertThat(read(response)).isEqualTo(content);
+    }
+    
+    @Test
+    void partSizesAreValidated() throws Exception {
+        User owner = newUser();
+        
+        MultipartInitiateRequest tooSmall = request(null);
+        tooSmall.setPartSize(1024L);
+        assertThatThrownBy(() -> multipartUploadService.initiate(tooSmall, owner))
+                .hasMessage("Invalid part size");
+        
+        MultipartUploadDto upload = multipartUploadService.initiate(request(2L * PART_SIZE), owner);
+        assertThatThrownBy(() -> uploadPart(upload, 1, randomBytes(PART_SIZE + 1, 404), owner))
+                .hasMessage("Part exceeds part size");
+        assertThatThrownBy(() -> uploadPart(upload, 3, randomBytes(10, 405), owner))
+                .hasMessage("Invalid part number");
+        
+        // 마지막이 아닌 파트가 partSize보다 짧음
+        uploadPart(upload, 1, randomBytes(PART_SIZE - 1, 406), owner);
+        uploadPart(upload, 2, randomBytes(PART_SIZE, 407), owner);
+        assertThatThrownBy(() -> multipartUploadService.complete(upload.getUploadId(), owner))
+                .hasMessage("Invalid size for part 1");
+        
+        // 전체 크기와 다름
+        uploadPart(upload, 1, randomBytes(PART_SIZE, 408), owner);
+        uploadPart(upload, 2, randomBytes(PART_SIZE - 1, 409), owner);
+        assertThatThrownBy(() -> multipartUploadService.complete(upload.getUploadId(), owner))
+                .hasMessage("Incomplete upload");
+    }
+    
+    @Test
+    void missingPartFailsCompleteAndKeepsUploadOpen() throws Exception {
+        User owner = newUser();
+        byte[] content = randomBytes(2 * PART_SIZE + 10, 410);
+        MultipartUploadDto upload = multipartUploadService.initiate(request(null), owner);
+        
+        uploadPart(upload, 1, part(content, 1), owner);
+        uploadPart(upload, 3, part(content, 3), owner);
+        assertThatThrownBy(() -> multipartUploadService.complete(upload.getUploadId(), owner))
+                .hasMessage("Missing part 2");
+        
+        // 빠진 파트를 채우면 이어서 완료할 수 있음
+        uploadPart(upload, 2, part(content, 2), owner);
+        assertThat(read(multipartUploadService.complete(upload.getUploadId(), owner))).isEqualTo(content);
+    }
+    
+    @Test
+    void abortRemovesStagingFileAndReservation() throws Exception {
+        User owner = newUser();
+        MultipartUploadDto upload = multipartUploadService.initiate(request(2L * PART_SIZE), owner);
+        uploadPart(upload, 1, randomBytes(PART_SIZE, 411), owner);
+        
+        multipartUploadService.abort(upload.getUploadId(), owner);
+        
+        assertThat(stagingFile(upload)).doesNotExist();
+        assertThat(quotaService.status(owner).usedBytes()).isZero();
+        assertThatThrownBy(() -> multipartUploadService.getStatus(upload.getUploadId(), owner))
+                .hasMessage("Upload not found");
+        assertThatThrownBy(() -> uploadPart(upload, 2, randomBytes(PART_SIZE, 412), owner))
+                .hasMessage("Upload not found");
+    }
+    
+    @Test
+    void otherUsersCannotTouchUpload() throws Exception {
+        User owner = newUser();
+        User other = newUser();
+        MultipartUploadDto upload = multipartUploadService.initiate(request(null), owner);
+        
+        assertThatThrownBy(() -> uploadPart(upload, 1, randomBytes(PART_SIZE, 413), other))
+                .hasMessage("Upload not found");
+        assertThatThrownBy(() -> multipartUploadService.abort(upload.getUploadId(), other))
+                .hasMessage("Upload not found");
+        assertThat(stagingFile(upload)).exists();
+    }
+    
+    @Test
+    void expiredUploadsAreCleanedUp() throws Exception {
+        User owner = newUser();
+        MultipartUploadDto upload = multipartUploadService.initiate(request(2L * PART_SIZE), owner);
+        uploadPart(upload, 1, randomBytes(PART_SIZE, 414), owner);
+        
+        Duration expiry = (Duration) ReflectionTestUtils.getField(multipartUploadService, "expiry");
+        try {
+            Thread.sleep(5);
+            ReflectionTestUtils.setField(multipartUploadService, "expiry", Duration.ZERO);
+            multipartUploadService.cleanupExpiredUploads();
+        } finally {
+            ReflectionTestUtils.setField(multipartUploadService, "expiry", expiry);
+        }
+        
+        assertThat(stagingFile(upload)).doesNotExist();
+        assertThat(quotaService.status(owner).usedBytes()).isZero();
+        assertThat(quotaService.status(owner).usedObjects()).isZero();
+        assertThatThrownBy(() -> multipartUploadService.getStatus(upload.getUploadId(), owner))
+                .hasMessage("Upload not found");
+    }
+    
+    private MultipartUploadDto uploadPart(MultipartUploadDto upload, int partNumber, byte[] bytes, User owner)
+            throws Exception {
+        return multipartUploadService.uploadPart(upload.getUploadId(), partNumber, new ByteArrayInputStream(bytes), owner);
+    }
+    
+    private byte[] read(FileUploadResponse response) throws Exception {
+        String hash = fileMetadataRepository.findById(response.getFileId()).orElseThrow().getBlobHash();
+        ByteBuffer buffer = HotObjectCache.read(blobStore.locate(hash));
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private static Path stagingFile(MultipartUploadDto upload) {
+        return UPLOAD_DIR.resolve(".multipart").resolve(upload.getUploadId());
+    }
+    
+    private static byte[] part(byte[] content, int partNumber) {
+        int from = (partNumber - 1) * PART_SIZE;
+        return Arrays.copyOfRange(content, from, Math.min(from + PART_SIZE, content.length));
+    }
+    
+    private static MultipartInitiateRequest request(Long totalSize) {
+        MultipartInitiateRequest request = new MultipartInitiateRequest();
+        request.setFilename("parts.bin");
+        request.setPartSize((long) PART_SIZE);
+        request.setTotalSize(totalSize);
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.FileMetadataRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 서명된 다운로드 토큰의 검증 (만료, 변조, 작업 제한)
+ */
+class PresignedUrlServiceTests extends StorageTestSupport {
+    
+    @Autowired
+    private PresignedUrlService presignedUrlService;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private FileMetadataRepository fileMetadataRepository;
+    
+    @Value("${file.presign.secret}")
+    private String secret;
+    
+    @Test
+    void validTokenResolvesToBlob() throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("small.bin", randomBytes(4 * 1024, 17)), owner);
+        
+        String token = presignedUrlService.presign(uploaded.getFileId(), owner, 60L).orElseThrow().token();
+        PresignedUrlService.PresignedDownload download = presignedUrlService.verify(token);
+        
+        String hash = fileMetadataRepository.findById(uploaded.getFileId()).orElseThrow().getBlobHash();
+        assertThat(download.download().blobHash()).isEqualTo(hash);
+        assertThat(download.download().originalFilename()).isEqualTo("small.bin");
+        assertThat(download.expiresAt()).isAfter(Instant.now());
+    }
+    
+    @Test
+    void otherUsersCannotPresign() throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("a.bin", randomBytes(1024, 18)), owner);
+        
+        assertThat(presignedUrlService.presign(uploaded.getFileId(), newUser(), null)).isEmpty();
+    }
+    
+    @Test
+    void tamperedPayloadIsRejected() throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("a.bin", randomBytes(1024, 19)), owner);
+        String token = presignedUrlService.presign(uploaded.getFileId(), owner, 60L).orElseThrow().token();
+        
+        // 다른 파일 id로 바꾼 payload에 원래 서명을 붙임
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"sub\":\"" + uploaded.getFileId() + "\"", "\"sub\":\"" + (uploaded.getFileId() + 1) + "\"");
+        String tampered = parts[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+        
+        assertThatThrownBy(() -> presignedUrlService.verify(tampered))
+                .hasMessage("Invalid signature");
+    }
+    
+    @Test
+    void tokenSignedWithOtherKeyIsRejected() {
+        String forged = Jwts.builder()
+                .setSubject("1")
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .claim("op", "download")
+                .signWith(Keys.hmacShaKeyFor("another-secret-key-that-is-long-enough".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        
+        assertThatThrownBy(() -> presignedUrlService.verify(forged))
+                .hasMessage("Invalid signature");
+    }
+    
+    @Test
+    void expiredTokenIsRejected() {
+        String expired = Jwts.builder()
+                .setSubject("1")
+                .setExpiration(Date.from(Instant.now().minusSeconds(5)))
+                .claim("op", "download")
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        
+        assertThatThrownBy(() -> presignedUrlService.verify(expired))
+                .hasMessage("Link expired");
+    }
+    
+    @Test
+    void otherOperationsAreRejected() {
+        String upload = Jwts.builder()
+                .setSubject("1")
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .claim("op", "upload")
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        
+        assertThatThrownBy(() -> presignedUrlService.verify(upload))
+                .hasMessage("Operation not allowed");
+    }
+    
+    @Test
+    void expiryOutsideAllowedRangeIsRejected() throws Exception {
+        User owner = newUser();
+        FileUploadResponse uploaded = fileStorageService.uploadFile(file("a.bin", randomBytes(1024, 20)), owner);
+        
+        assertThatThrownBy(() -> presignedUrlService.presign(uploaded.getFileId(), owner, 0L))
+                .hasMessageStartingWith("Invalid expiry");
+        assertThatThrownBy(() -> presignedUrlService.presign(uploaded.getFileId(), owner, 7 * 24 * 3600L))
+                .hasMessageStartingWith("Invalid expiry");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.example.object_storage.service;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.dto.MultipartInitiateRequest;
+import com.example.object_storage.dto.MultipartUploadDto;
+import com.example.object_storage.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 쿼터 예약 → 확정/취소와, 크기를 모르는 업로드가 남은 쿼터 안에서 끊기는지 확인
+ * multipart 업로드는 시작부터 완료/취소까지 예약을 들고 있는지 확인
+ */
+class QuotaServiceTests extends StorageTestSupport {
+    
+    @Autowired
+    private QuotaService quotaService;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private MultipartUploadService multipartUploadService;
+    
+    @Test
+    void committedReservationStaysAndClosedOneIsRolledBack() {
+        User owner = userWithQuota(1000);
+        
+        try (QuotaService.Reservation reservation = quotaService.reserve(owner, 300, 1)) {
+            reservation.commit();
+        }
+        assertThat(usedBytes(owner)).isEqualTo(300);
+        assertThat(quotaService.status(owner).usedObjects()).isEqualTo(1);
+        
+        try (QuotaService.Reservation ignored = quotaService.reserve(owner, 500, 1)) {
+            assertThat(usedBytes(owner)).isEqualTo(800);
+        }
+        assertThat(usedBytes(owner)).isEqualTo(300);
+        assertThat(quotaService.status(owner).usedObjects()).isEqualTo(1);
+    }
+    
+    @Test
+    void reservationOverLimitReservesNothing() {
+        User owner = userWithQuota(1000);
+        
+        assertThatThrownBy(() -> quotaService.reserve(owner, 1001, 1))
+                .hasMessage(QuotaService.QUOTA_EXCEEDED);
+        assertThat(usedBytes(owner)).isZero();
+        assertThat(quotaService.status(owner).usedObjects()).isZero();
+    }
+    
+    @Test
+    void resizeOverLimitKeepsOriginalReservation() {
+        User owner = userWithQuota(1000);
+        
+        try (QuotaService.Reservation reservation = quotaService.reserve(owner, 0, 1)) {
+            reservation.resize(600);
+            assertThatThrownBy(() -> reservation.resize(1200))
+                    .hasMessage(QuotaService.QUOTA_EXCEEDED);
+            assertThat(usedBytes(owner)).isEqualTo(600);
+            assertThat(reservation.headroom()).isEqualTo(400);
+        }
+        assertThat(usedBytes(owner)).isZero();
+    }
+    
+    @Test
+    void chunkedUploadIsCutOffAtRemainingQuota() {
+        User owner = userWithQuota(64 * 1024);
+        byte[] content = randomBytes(200 * 1024, 21);
+        
+        assertThatThrownBy(() -> fileStorageService.uploadStream(
+                new ByteArrayInputStream(content), "big.bin", "application/octet-stream", -1, owner))
+                .hasMessage(QuotaService.QUOTA_EXCEEDED);
+        assertThat(usedBytes(owner)).isZero();
+        assertThat(quotaService.status(owner).usedObjects()).isZero();
+    }
+    
+    @Test
+    void chunkedUploadWithinQuotaIsStored() throws Exception {
+        User owner = userWithQuota(64 * 1024);
+        byte[] content = randomBytes(16 * 1024, 22);
+        
+        FileUploadResponse response = fileStorageService.uploadStream(
+                new ByteArrayInputStream(content), "small.bin", "application/octet-stream", -1, owner);
+        
+        assertThat(response.getFileSize()).isEqualTo((long) content.length);
+        assertThat(usedBytes(owner)).isEqualTo(content.length);
+    }
+    
+    @Test
+    void multipartUploadReservesDeclaredSizeUntilAborted() throws Exception {
+        User owner = userWithQuota(256 * 1024);
+        
+        MultipartUploadDto upload = multipartUploadService.initiate(initiateRequest(192L * 1024), owner);
+        assertThat(usedBytes(owner)).isEqualTo(192 * 1024);
+        
+        // 남은 64KB로는 두 번째 업로드를 시작하지 못함
+        assertThatThrownBy(() -> multipartUploadService.initiate(initiateRequest(128L * 1024), owner))
+                .hasMessage(QuotaService.QUOTA_EXCEEDED);
+        
+        multipartUploadService.abort(upload.getUploadId(), owner);
+        assertThat(usedBytes(owner)).isZero();
+        assertThat(quotaService.status(owner).usedObjects()).isZero();
+    }
+    
+    @Test
+    void multipartUploadWithoutTotalSizeGrowsReservationPerPart() throws Exception {
+        User owner = userWithQuota(160 * 1024);
+        byte[] part = randomBytes(64 * 1024, 31);
+        
+        MultipartUploadDto upload = multipartUploadService.initiate(initiateRequest(null), owner);
+        multipartUploadService.uploadPart(upload.getUploadId(), 1, new ByteArrayInputStream(part), owner);
+        multipartUploadService.uploadPart(upload.getUploadId(), 2, new ByteArrayInputStream(part), owner);
+        assertThat(usedBytes(owner)).isEqualTo(128 * 1024);
+        
+        // 세 번째 파트는 본문을 읽기 전에 한도에서 거절
+        assertThatThrownBy(() -> multipartUploadService.uploadPart(
+                upload.getUploadId(), 3, new ByteArrayInputStream(part), owner))
+                .hasMessage(QuotaService.QUOTA_EXCEEDED);
+        assertThat(usedBytes(owner)).isEqualTo(128 * 1024);
+        
+        FileUploadResponse response = multipartUploadService.complete(upload.getUploadId(), owner);
+        assertThat(response.getFileSize()).isEqualTo(128L * 1024);
+        assertThat(usedBytes(owner)).isEqualTo(128 * 1024);
+        assertThat(quotaService.status(owner).usedObjects()).isEqualTo(1);
+    }
+    
+    private static MultipartInitiateRequest initiateRequest(Long totalSize) {
+        MultipartInitiateRequest request = new MultipartInitiateRequest();
+        request.setFilename("multipart.bin");
+        request.setPartSize(64L * 1024);
+        request.setTotalSize(totalSize);
+        return request;
+    }
+    
+    private User userWithQuota(long bytes) {
+        User owner = newUser();
+        owner.setQuotaBytes(bytes);
+        return userRepository.save(owner);
+    }
+    
+    private long usedBytes(User owner) {
+        return quotaService.status(owner).usedBytes();
+    }
+}
\ No newline at end of file
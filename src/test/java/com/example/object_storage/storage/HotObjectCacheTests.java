@@ -0,0 +1,104 @@
+package com.example.object_storage.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 락 없는 조회와 나중에 반영되는 접근 기록이 segmented LRU 동작을 유지하는지 확인
+ */
+class HotObjectCacheTests {
+    
+    private HotObjectCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new HotObjectCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", DataSize.ofKilobytes(4));
+        ReflectionTestUtils.setField(cache, "maxEntrySize", DataSize.ofKilobytes(1));
+    }
+    
+    @Test
+    void entryReadTwiceSurvivesOneTimeReads() {
+        cache.put("hot", content(1024), cache.generation());
+        assertThat(cache.get("hot")).isNotNull();
+        
+        // 한 번씩만 읽히는 객체들이 들어와도 protected로 승격된 항목은 남아야 함
+        for (int i = 0; i < 10; i++) {
+            cache.put("scan-" + i, content(1024), cache.generation());
+        }
+        
+        assertThat(cache.get("hot")).isNotNull();
+        assertThat(cache.get("scan-0")).isNull();
+        assertThat(cache.stats().bytes()).isLessThanOrEqualTo(4 * 1024);
+        assertThat(cache.stats().evictions()).isPositive();
+    }
+    
+    @Test
+    void invalidatedEntryIsNotServedOrReloadedFromStaleRead() {
+        long generation = cache.generation();
+        cache.put("a", content(512), generation);
+        assertThat(cache.get("a")).isNotNull();
+        
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        
+        // 무효화 전에 시작된 적재는 저장되지 않음
+        cache.put("a", content(512), generation);
+        assertThat(cache.get("a")).isNull();
+    }
+    
+    @Test
+    void concurrentReadsStayWithinSizeLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            cache.put("key-" + i, content(512), cache.generation());
+        }
+        
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10_000; i++) {
+                        String key = "key-" + ((i + seed) % 16);
+                        if (cache.get(key) == null) {
+                            cache.put(key, content(512), cache.generation());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        HotObjectCache.CacheStats stats = cache.stats();
+        assertThat(stats.bytes()).isLessThanOrEqualTo(4 * 1024);
+        assertThat(stats.bytes()).isEqualTo(stats.entries() * 512L);
+        assertThat(stats.hits() + stats.misses()).isEqualTo(threads * 10_000L);
+    }
+    
+    private static ByteBuffer content(int size) {
+        return ByteBuffer.allocateDirect(size);
+    }
+}
\ No newline at end of file
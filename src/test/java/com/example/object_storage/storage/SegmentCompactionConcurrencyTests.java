@@ -0,0 +1,138 @@
+package com.example.object_storage.storage;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.BlobRepository;
+import com.example.object_storage.repository.FileMetadataRepository;
+import com.example.object_storage.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 업로드가 세그먼트를 계속 바꾸는 동안 컴팩션을 반복해도 살아 있는 객체가 회수된 세그먼트를 가리키지 않는지 확인
+ * 세그먼트를 작게(64KB) 두고 유예 기간을 없애므로 다른 테스트와 디렉토리/DB를 나눠 쓴다
+ */
+class SegmentCompactionConcurrencyTests extends StorageTestSupport {
+    
+    private static final Path SEGMENT_TEST_DIR = createDirectory();
+    
+    private static final int OBJECT_SIZE = 8 * 1024;
+    private static final int WRITERS = 4;
+    private static final int UPLOADS_PER_WRITER = 48;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private FileMetadataRepository fileMetadataRepository;
+    
+    @Autowired
+    private BlobRepository blobRepository;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private SegmentStore segmentStore;
+    
+    @DynamicPropertySource
+    static void segmentProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.dir", () -> SEGMENT_TEST_DIR.toString());
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:segment-concurrency-test;DB_CLOSE_DELAY=-1");
+        registry.add("file.storage.segment.segment-size", () -> "64KB");
+        registry.add("file.storage.segment.retired-grace-period", () -> "PT0S");
+    }
+    
+    @Test
+    void segmentsRolledDuringCompactionKeepTheirObjects() throws Exception {
+        User owner = newUser();
+        
+        // 작성자마다 8KB 객체를 올리고 둘 중 하나를 지워, 세그먼트가 바뀌는 동안 컴팩션 대상도 계속 생기게 함
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<Map<Long, byte[]>>> writers = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                Callable<Map<Long, byte[]>> task = () -> {
+                    Map<Long, byte[]> kept = new HashMap<>();
+                    for (int i = 0; i < UPLOADS_PER_WRITER; i++) {
+                        byte[] content = randomBytes(OBJECT_SIZE, 200 + writer * 100 + i);
+                        FileUploadResponse uploaded = fileStorageService.uploadFile(
+                                file("w" + writer + "-" + i + ".bin", content), owner);
+                        if (i % 2 == 0) {
+                            fileStorageService.deleteFile(uploaded.getFileId(), owner);
+                        } else {
+                            kept.put(uploaded.getFileId(), content);
+                        }
+                    }
+                    return kept;
+                };
+                writers.add(executor.submit(task));
+            }
+            
+            int passes = 0;
+            while (passes == 0 || !writers.stream().allMatch(Future::isDone)) {
+                segmentStore.compact();
+                passes++;
+            }
+            
+            Map<Long, byte[]> kept = new HashMap<>();
+            for (Future<Map<Long, byte[]>> writer : writers) {
+                kept.putAll(writer.get());
+            }
+            
+            // 마지막 두 번으로 남은 대상을 비우고 유예 기간이 지난 세그먼트를 지움
+            segmentStore.compact();
+            segmentStore.compact();
+            
+            assertThat(kept).hasSize(WRITERS * UPLOADS_PER_WRITER / 2);
+            for (Map.Entry<Long, byte[]> entry : kept.entrySet()) {
+                Blob blob = blob(entry.getKey());
+                assertThat(segmentStore.path(blob.getSegmentId())).exists();
+                assertThat(read(blob)).isEqualTo(entry.getValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Blob blob(long fileId) {
+        String hash = fileMetadataRepository.findById(fileId).orElseThrow().getBlobHash();
+        return blobRepository.findById(hash).orElseThrow();
+    }
+    
+    private byte[] read(Blob blob) throws IOException {
+        ByteBuffer buffer = HotObjectCache.read(blobStore.locate(blob));
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("object-storage-segment-concurrency-test-").toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.example.object_storage.storage;
+
+import com.example.object_storage.StorageTestSupport;
+import com.example.object_storage.dto.FileUploadResponse;
+import com.example.object_storage.entity.Blob;
+import com.example.object_storage.entity.User;
+import com.example.object_storage.repository.BlobRepository;
+import com.example.object_storage.repository.FileMetadataRepository;
+import com.example.object_storage.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 삭제가 많은 세그먼트의 살아 있는 객체가 옮겨지고, 유예 기간 뒤 세그먼트 파일이 회수되는지 확인
+ * 세그먼트를 작게(64KB) 두고 유예 기간을 없애므로 다른 테스트와 디렉토리/DB를 나눠 쓴다
+ */
+class SegmentCompactionTests extends StorageTestSupport {
+    
+    private static final Path SEGMENT_TEST_DIR = createDirectory();
+    
+    private static final int OBJECT_SIZE = 8 * 1024;
+    
+    @Autowired
+    private FileStorageService fileStorageService;
+    
+    @Autowired
+    private FileMetadataRepository fileMetadataRepository;
+    
+    @Autowired
+    private BlobRepository blobRepository;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private SegmentStore segmentStore;
+    
+    @DynamicPropertySource
+    static void segmentProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.dir", () -> SEGMENT_TEST_DIR.toString());
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:segment-compaction-test;DB_CLOSE_DELAY=-1");
+        registry.add("file.storage.segment.segment-size", () -> "64KB");
+        registry.add("file.storage.segment.retired-grace-period", () -> "PT0S");
+    }
+    
+    @Test
+    void liveObjectsAreMovedAndSegmentIsReclaimed() throws Exception {
+        User owner = newUser();
+        
+        // 한 세그먼트(64KB)를 8KB 객체 8개로 채우고, 다음 업로드로 새 세그먼트가 활성이 되게 함
+        List<FileUploadResponse> uploads = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            byte[] content = randomBytes(OBJECT_SIZE, 100 + i);
+            contents.add(content);
+            uploads.add(fileStorageService.uploadFile(file("small-" + i + ".bin", content), owner));
+        }
+        long compactedSegment = blob(uploads.get(0)).getSegmentId();
+        assertThat(blob(uploads.get(7)).getSegmentId()).isEqualTo(compactedSegment);
+        assertThat(blob(uploads.get(8)).getSegmentId()).isNotEqualTo(compactedSegment);
+        
+        // 8개 중 5개를 지워 삭제 비율을 50% 넘게 만듦
+        for (int i = 0; i < 5; i++) {
+            assertThat(fileStorageService.deleteFile(uploads.get(i).getFileId(), owner)).isTrue();
+        }
+        
+        segmentStore.compact();
+        
+        for (int i = 5; i < 8; i++) {
+            Blob moved = blob(uploads.get(i));
+            assertThat(moved.getSegmentId()).isNotEqualTo(compactedSegment);
+            assertThat(read(moved)).isEqualTo(contents.get(i));
+        }
+        assertThat(read(blob(uploads.get(8)))).isEqualTo(contents.get(8));
+        
+        // 다음 컴팩션에서 유예 기간이 지난 세그먼트 파일을 지움
+        segmentStore.compact();
+        assertThat(segmentStore.path(compactedSegment)).doesNotExist();
+        assertThat(blobRepository.findBySegmentId(compactedSegment)).isEmpty();
+    }
+    
+    private Blob blob(FileUploadResponse response) {
+        String hash = fileMetadataRepository.findById(response.getFileId()).orElseThrow().getBlobHash();
+        return blobRepository.findById(hash).orElseThrow();
+    }
+    
+    private byte[] read(Blob blob) throws IOException {
+        ByteBuffer buffer = HotObjectCache.read(blobStore.locate(blob));
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("object-storage-segment-test-").toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.object_storage.storage;
+
+import com.example.object_storage.StorageTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /files/** 가 업로드 디렉토리의 내부 파일(세그먼트, 임시 파일)을 내보내지 않는지 확인
+ */
+class ShardedResourceResolverTests extends StorageTestSupport {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void segmentFilesAreNotServed() throws Exception {
+        Path segment = UPLOAD_DIR.resolve(".segments").resolve("segment-999999.dat");
+        Files.createDirectories(segment.getParent());
+        Files.writeString(segment, "private object bytes");
+        
+        mockMvc.perform(get("/files/.segments/segment-999999.dat"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void tempFilesAreNotServed() throws Exception {
+        Path temp = UPLOAD_DIR.resolve(".tmp").resolve("upload.tmp");
+        Files.createDirectories(temp.getParent());
+        Files.writeString(temp, "partial upload");
+        
+        mockMvc.perform(get("/files/.tmp/upload.tmp"))
+                .andExpect(status().isNotFound());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.object_storage.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 진행 중인 작업을 나눠 받는지, forget 뒤에 들어온 요청은 새로 수행하는지 확인
+ */
+class SingleFlightTests {
+    
+    @Test
+    void laterCallerAfterForgetStartsFreshLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("link", () -> {
+                leaderStarted.countDown();
+                await(releaseLeader);
+                return "before";
+            }));
+            assertThat(leaderStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            
+            // 원본이 바뀐 뒤 떼어 내면, 이후 요청은 진행 중인 결과를 기다리지 않고 직접 읽음
+            flight.forget("link");
+            assertThat(flight.execute("link", () -> "after")).isEqualTo("after");
+            
+            releaseLeader.countDown();
+            assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("before");
+            assertThat(flight.executions()).isEqualTo(2);
+            assertThat(flight.coalesced()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void callerDuringLoadSharesLeaderResult() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("link", () -> {
+                leaderStarted.countDown();
+                await(releaseLeader);
+                return "shared";
+            }));
+            assertThat(leaderStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            
+            Future<String> follower = executor.submit(() -> flight.execute("link", () -> "own"));
+            while (flight.coalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            releaseLeader.countDown();
+            
+            assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("shared");
+            assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo("shared");
+            assertThat(flight.executions()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file